@@ -24,6 +24,9 @@ public class ApplicationControllerAdvice {
     @ExceptionHandler(BusinessException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiErrors handleVBusinessException(BusinessException argument) {
+        if (argument.getError() != null) {
+            return argument.getError().getApiErrors();
+        }
         return new ApiErrors(argument);
     }
 
@@ -0,0 +1,72 @@
+package com.mprribeiro.libraryapi.api.catalog;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.support.Isbn;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookEvent {
+
+    public enum Type {
+        SAVED, UPDATED, DELETED, AVAILABILITY;
+
+        int code() {
+            return ordinal() + 1;
+        }
+
+        static Type of(int code) {
+            return values()[code - 1];
+        }
+    }
+
+    private final Type type;
+    private final long bookId;
+    private final long isbnKey;
+    private final String title;
+    private final String author;
+    private final int copies;
+    private final int available;
+    private final String previousAuthor;
+
+    public static BookEvent saved(Book book) {
+        return of(Type.SAVED, book);
+    }
+
+    public static BookEvent updated(Book book, String previousAuthor) {
+        return new BookEvent(Type.UPDATED, book.getId() == null ? 0 : book.getId(), book.getIsbnKey(), book.getTitle(), book.getAuthor(),
+                book.getCopies(), book.getAvailable(), previousAuthor);
+    }
+
+    public static BookEvent deleted(Book book) {
+        return of(Type.DELETED, book);
+    }
+
+    public static BookEvent availability(long bookId, int available) {
+        return new BookEvent(Type.AVAILABILITY, bookId, 0, null, null, 0, available, null);
+    }
+
+    public boolean isDeletion() {
+        return type == Type.DELETED;
+    }
+
+    public Book toBook() {
+        return Book.builder()
+                .id(bookId)
+                .isbnKey(isbnKey)
+                .isbn(isbnKey == 0 ? null : Isbn.format(isbnKey))
+                .title(title)
+                .author(author)
+                .copies(copies)
+                .available(available)
+                .build();
+    }
+
+    private static BookEvent of(Type type, Book book) {
+        return new BookEvent(type, book.getId() == null ? 0 : book.getId(), book.getIsbnKey(), book.getTitle(), book.getAuthor(),
+                book.getCopies(), book.getAvailable(), null);
+    }
+}
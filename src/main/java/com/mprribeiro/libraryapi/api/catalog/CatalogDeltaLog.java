@@ -0,0 +1,144 @@
+package com.mprribeiro.libraryapi.api.catalog;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+@Slf4j
+public class CatalogDeltaLog implements Closeable {
+
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int FIXED_PAYLOAD_SIZE = 1 + 8 + 8 + 4 + 4 + 4 + 4;
+
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public CatalogDeltaLog(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public static Path fileOf(Path directory, long generation) {
+        return directory.resolve(String.format("catalog-%08d.delta", generation));
+    }
+
+    public synchronized void append(BookEvent event) throws IOException {
+        byte[] title = bytes(event.getTitle());
+        byte[] author = bytes(event.getAuthor());
+        int payloadSize = FIXED_PAYLOAD_SIZE + length(title) + length(author);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadSize);
+        record.putInt(payloadSize).putInt(0);
+        record.put((byte) event.getType().code());
+        record.putLong(event.getBookId());
+        record.putLong(event.getIsbnKey());
+        putString(record, title);
+        putString(record, author);
+        record.putInt(event.getCopies());
+        record.putInt(event.getAvailable());
+        record.putInt(4, checksum(crc, record, RECORD_HEADER_SIZE, payloadSize));
+        record.flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        dirty.set(true);
+    }
+
+    public void flush() throws IOException {
+        if (dirty.getAndSet(false)) {
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // rotated concurrently, close() already forced the file
+            }
+        }
+    }
+
+    public static long read(Path file, long position, Consumer<BookEvent> consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return position;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            CRC32 crc = new CRC32();
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+            while (size - position >= RECORD_HEADER_SIZE) {
+                header.clear();
+                channel.read(header, position);
+                int payloadSize = header.getInt(0);
+                if (payloadSize < FIXED_PAYLOAD_SIZE || size - position - RECORD_HEADER_SIZE < payloadSize) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(payloadSize);
+                while (payload.hasRemaining()) {
+                    channel.read(payload, position + RECORD_HEADER_SIZE + payload.position());
+                }
+                if (header.getInt(4) != checksum(crc, payload, 0, payloadSize)) {
+                    log.warn("Torn record at {} of {}, stopping delta replay", position, file);
+                    break;
+                }
+                payload.flip();
+                BookEvent.Type type = BookEvent.Type.of(payload.get());
+                long bookId = payload.getLong();
+                long isbnKey = payload.getLong();
+                String title = getString(payload);
+                String author = getString(payload);
+                consumer.accept(new BookEvent(type, bookId, isbnKey, title, author, payload.getInt(), payload.getInt(), null));
+                position += RECORD_HEADER_SIZE + payloadSize;
+            }
+        }
+        return position;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+        }
+        channel.close();
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(CatalogSnapshot.NO_STRING);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == CatalogSnapshot.NO_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(CRC32 crc, ByteBuffer buffer, int start, int length) {
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start).limit(start + length);
+        crc.reset();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
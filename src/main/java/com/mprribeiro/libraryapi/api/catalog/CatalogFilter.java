@@ -0,0 +1,94 @@
+package com.mprribeiro.libraryapi.api.catalog;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.support.Isbn;
+
+import java.nio.charset.StandardCharsets;
+
+public final class CatalogFilter {
+
+    private static final int ISBN_DIGITS = 13;
+    private static final int NO_ISBN = -1;
+
+    private final Long id;
+    private final String title;
+    private final String author;
+    private final byte[] titleBytes;
+    private final byte[] authorBytes;
+    private final long isbnKey;
+    private final long isbnPart;
+    private final int isbnPartLength;
+    private final long isbnPartModulus;
+
+    private CatalogFilter(Long id, String title, String author, String isbn) {
+        this.id = id;
+        this.title = CatalogSnapshot.fold(title);
+        this.author = CatalogSnapshot.fold(author);
+        this.titleBytes = bytes(this.title);
+        this.authorBytes = bytes(this.author);
+        this.isbnKey = Isbn.toKey(isbn);
+        if (isbn == null || isbnKey != Isbn.INVALID) {
+            this.isbnPart = 0;
+            this.isbnPartLength = NO_ISBN;
+        } else if (!isbn.isEmpty() && isbn.length() <= ISBN_DIGITS && isbn.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            this.isbnPart = Long.parseLong(isbn);
+            this.isbnPartLength = isbn.length();
+        } else {
+            this.isbnPart = 0;
+            this.isbnPartLength = isbn.isEmpty() ? 0 : ISBN_DIGITS + 1;
+        }
+        this.isbnPartModulus = pow10(Math.max(0, isbnPartLength));
+    }
+
+    public static CatalogFilter of(Book filter) {
+        if (filter == null || (filter.getId() == null && filter.getTitle() == null && filter.getAuthor() == null && filter.getIsbn() == null)) {
+            return null;
+        }
+        return new CatalogFilter(filter.getId(), filter.getTitle(), filter.getAuthor(), filter.getIsbn());
+    }
+
+    public boolean matches(Book book) {
+        return (id == null || id.equals(book.getId()))
+                && (title == null || (book.getTitle() != null && CatalogSnapshot.fold(book.getTitle()).contains(title)))
+                && (author == null || (book.getAuthor() != null && CatalogSnapshot.fold(book.getAuthor()).contains(author)))
+                && matchesIsbn(book.getIsbnKey());
+    }
+
+    public boolean matches(CatalogSnapshot snapshot, int index) {
+        return (id == null || id == snapshot.id(index))
+                && matchesIsbn(snapshot.isbnKey(index))
+                && (titleBytes == null || snapshot.titleContains(index, titleBytes))
+                && (authorBytes == null || snapshot.authorContains(index, authorBytes));
+    }
+
+    private boolean matchesIsbn(long key) {
+        if (isbnKey != Isbn.INVALID) {
+            return key == isbnKey;
+        }
+        if (isbnPartLength == NO_ISBN) {
+            return true;
+        }
+        if (key == 0) {
+            return false;
+        }
+        long digits = key;
+        for (int shift = 0; shift <= ISBN_DIGITS - isbnPartLength; shift++, digits /= 10) {
+            if (digits % isbnPartModulus == isbnPart) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,110 @@
+package com.mprribeiro.libraryapi.api.catalog;
+
+import com.mprribeiro.libraryapi.api.journal.LoanEvent;
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.catalog.publish", havingValue = "true")
+public class CatalogPublisher implements DisposableBean {
+
+    public static final String SNAPSHOT_FILE = "catalog.snapshot";
+
+    private final BookRepository repository;
+    private final Path directory;
+    private final Path snapshotFile;
+    private final int batchSize;
+
+    private CatalogDeltaLog delta;
+
+    public CatalogPublisher(BookRepository repository,
+                            @Value("${application.catalog.dir:catalog}") String directory,
+                            @Value("${application.catalog.batch-size:1000}") int batchSize) throws IOException {
+        this.repository = repository;
+        this.directory = Paths.get(directory);
+        this.snapshotFile = this.directory.resolve(SNAPSHOT_FILE);
+        this.batchSize = batchSize;
+        Files.createDirectories(this.directory);
+        this.delta = new CatalogDeltaLog(CatalogDeltaLog.fileOf(this.directory, CatalogSnapshot.generationOf(snapshotFile)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void append(BookEvent event) {
+        try {
+            delta.append(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void append(LoanEvent event) {
+        if (event.getBookId() == 0) {
+            return;
+        }
+        Integer available = repository.findAvailable(event.getBookId());
+        if (available != null) {
+            append(BookEvent.availability(event.getBookId(), available));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.catalog.delta-flush-interval-ms:1000}")
+    public void flush() throws IOException {
+        CatalogDeltaLog current;
+        synchronized (this) {
+            current = delta;
+        }
+        current.flush();
+    }
+
+    @Scheduled(fixedDelayString = "${application.catalog.snapshot-interval-ms:3600000}")
+    public void publish() throws IOException {
+        long start = System.nanoTime();
+        long next = rotate();
+        int books = 0;
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(snapshotFile, next)) {
+            long afterId = 0;
+            List<Book> batch;
+            do {
+                batch = repository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, batchSize));
+                for (Book book : batch) {
+                    writer.add(book);
+                    afterId = book.getId();
+                }
+                books += batch.size();
+            } while (batch.size() == batchSize);
+            writer.commit();
+        }
+        Files.deleteIfExists(CatalogDeltaLog.fileOf(directory, next - 2));
+        log.info("Published catalog snapshot {} with {} books in {} ms", next, books, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        delta.close();
+    }
+
+    private synchronized long rotate() throws IOException {
+        long generation = CatalogSnapshot.generationOf(snapshotFile) + 1;
+        delta.close();
+        delta = new CatalogDeltaLog(CatalogDeltaLog.fileOf(directory, generation));
+        return generation;
+    }
+}
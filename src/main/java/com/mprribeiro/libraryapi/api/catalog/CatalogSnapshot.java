@@ -0,0 +1,197 @@
+package com.mprribeiro.libraryapi.api.catalog;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.support.Isbn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+public class CatalogSnapshot {
+
+    static final int MAGIC = 0x43415431;
+    static final int VERSION = 3;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 40;
+    static final int ISBN_ENTRY_SIZE = 12;
+    static final int NO_STRING = -1;
+
+    private static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, 0, ByteBuffer.allocate(0), 0);
+
+    private final long generation;
+    private final int size;
+    private final ByteBuffer buffer;
+    private final int isbnIndexOffset;
+    private final int stringsOffset;
+
+    private CatalogSnapshot(long generation, int size, ByteBuffer buffer, int stringsOffset) {
+        this.generation = generation;
+        this.size = size;
+        this.buffer = buffer;
+        this.isbnIndexOffset = HEADER_SIZE + size * RECORD_SIZE;
+        this.stringsOffset = stringsOffset;
+    }
+
+    public static CatalogSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot " + file + " exceeds the 2GB mapping limit");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a catalog snapshot: " + file);
+            }
+            return new CatalogSnapshot(buffer.getLong(16), buffer.getInt(8), buffer, (int) buffer.getLong(24));
+        }
+    }
+
+    public static long generationOf(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    return 0;
+                }
+            }
+            return header.getLong(16);
+        }
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long id(int index) {
+        return buffer.getLong(record(index));
+    }
+
+    public long isbnKey(int index) {
+        return buffer.getLong(record(index) + 8);
+    }
+
+    public String title(int index) {
+        return string(buffer.getInt(record(index) + 16));
+    }
+
+    public String author(int index) {
+        return string(buffer.getInt(record(index) + 20));
+    }
+
+    public int copies(int index) {
+        return buffer.getInt(record(index) + 32);
+    }
+
+    public int available(int index) {
+        return buffer.getInt(record(index) + 36);
+    }
+
+    public boolean titleContains(int index, byte[] foldedPart) {
+        return contains(buffer.getInt(record(index) + 24), foldedPart);
+    }
+
+    public boolean authorContains(int index, byte[] foldedPart) {
+        return contains(buffer.getInt(record(index) + 28), foldedPart);
+    }
+
+    public Book book(int index) {
+        long isbnKey = isbnKey(index);
+        return Book.builder()
+                .id(id(index))
+                .isbnKey(isbnKey)
+                .isbn(isbnKey == 0 ? null : Isbn.format(isbnKey))
+                .title(title(index))
+                .author(author(index))
+                .copies(copies(index))
+                .available(available(index))
+                .build();
+    }
+
+    public int indexOfId(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = id(mid);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public int indexOfIsbn(long isbnKey) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = isbnIndexOffset + mid * ISBN_ENTRY_SIZE;
+            long value = buffer.getLong(entry);
+            if (value < isbnKey) {
+                low = mid + 1;
+            } else if (value > isbnKey) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(entry + 8);
+            }
+        }
+        return -1;
+    }
+
+    static String fold(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private int record(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private String string(int offset) {
+        if (offset == NO_STRING) {
+            return null;
+        }
+        ByteBuffer entry = buffer.duplicate();
+        entry.position(stringsOffset + offset);
+        byte[] bytes = new byte[entry.getInt()];
+        entry.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean contains(int offset, byte[] part) {
+        if (offset == NO_STRING) {
+            return false;
+        }
+        int start = stringsOffset + offset + 4;
+        int last = start + buffer.getInt(start - 4) - part.length;
+        for (int i = start; i <= last; i++) {
+            int j = 0;
+            while (j < part.length && buffer.get(i + j) == part[j]) {
+                j++;
+            }
+            if (j == part.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,164 @@
+package com.mprribeiro.libraryapi.api.catalog;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+public class CatalogSnapshotWriter implements Closeable {
+
+    private final Path target;
+    private final long generation;
+    private final Path recordsFile;
+    private final Path stringsFile;
+    private final Path snapshotFile;
+    private final DataOutputStream records;
+    private final DataOutputStream strings;
+    private final Map<String, Integer> authors = new HashMap<>();
+
+    private long[] isbnKeys = new long[1024];
+    private int size;
+    private long lastId = Long.MIN_VALUE;
+
+    public CatalogSnapshotWriter(Path target, long generation) throws IOException {
+        this.target = target;
+        this.generation = generation;
+        this.recordsFile = sibling(".records.tmp");
+        this.stringsFile = sibling(".strings.tmp");
+        this.snapshotFile = sibling(".tmp");
+        this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordsFile)));
+        this.strings = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(stringsFile)));
+    }
+
+    public void add(Book book) throws IOException {
+        if (book.getId() <= lastId) {
+            throw new IllegalArgumentException("Books must be added in ascending id order");
+        }
+        lastId = book.getId();
+        if (size == isbnKeys.length) {
+            isbnKeys = Arrays.copyOf(isbnKeys, size * 2);
+        }
+        isbnKeys[size++] = book.getIsbnKey();
+        records.writeLong(book.getId());
+        records.writeLong(book.getIsbnKey());
+        int title = writeString(book.getTitle());
+        String foldedTitle = CatalogSnapshot.fold(book.getTitle());
+        records.writeInt(title);
+        records.writeInt(author(book.getAuthor()));
+        records.writeInt(foldedTitle == null || foldedTitle.equals(book.getTitle()) ? title : writeString(foldedTitle));
+        records.writeInt(author(CatalogSnapshot.fold(book.getAuthor())));
+        records.writeInt(book.getCopies());
+        records.writeInt(book.getAvailable());
+    }
+
+    public void commit() throws IOException {
+        records.close();
+        strings.close();
+        long stringsOffset = CatalogSnapshot.HEADER_SIZE + (long) size * (CatalogSnapshot.RECORD_SIZE + CatalogSnapshot.ISBN_ENTRY_SIZE);
+        if (stringsOffset + Files.size(stringsFile) > Integer.MAX_VALUE) {
+            throw new IOException("Catalog snapshot exceeds the 2GB mapping limit");
+        }
+
+        try (FileChannel out = FileChannel.open(snapshotFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(CatalogSnapshot.HEADER_SIZE)
+                    .putInt(CatalogSnapshot.MAGIC)
+                    .putInt(CatalogSnapshot.VERSION)
+                    .putInt(size)
+                    .putInt(0)
+                    .putLong(generation)
+                    .putLong(stringsOffset);
+            header.flip();
+            write(out, header);
+            transfer(recordsFile, out);
+            writeIsbnIndex(out);
+            transfer(stringsFile, out);
+            out.force(true);
+        }
+        Files.move(snapshotFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+        strings.close();
+        Files.deleteIfExists(recordsFile);
+        Files.deleteIfExists(stringsFile);
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    private void writeIsbnIndex(FileChannel out) throws IOException {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(index -> isbnKeys[index]));
+        ByteBuffer entries = ByteBuffer.allocate(CatalogSnapshot.ISBN_ENTRY_SIZE * 4096);
+        for (int index : order) {
+            if (!entries.hasRemaining()) {
+                entries.flip();
+                write(out, entries);
+                entries.clear();
+            }
+            entries.putLong(isbnKeys[index]).putInt(index);
+        }
+        entries.flip();
+        write(out, entries);
+    }
+
+    private int writeString(String value) throws IOException {
+        if (value == null) {
+            return CatalogSnapshot.NO_STRING;
+        }
+        int offset = strings.size();
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        strings.writeInt(bytes.length);
+        strings.write(bytes);
+        return offset;
+    }
+
+    private int author(String author) {
+        return author == null ? CatalogSnapshot.NO_STRING : authors.computeIfAbsent(author, this::writeAuthor);
+    }
+
+    private int writeAuthor(String author) {
+        try {
+            return writeString(author);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path sibling(String suffix) {
+        return target.resolveSibling(target.getFileName() + suffix);
+    }
+
+    private static void transfer(Path source, FileChannel out) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long position = 0;
+            long size = in.size();
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    private static void write(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.mprribeiro.libraryapi.api.catalog;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+public class CatalogView {
+
+    private final CatalogSnapshot snapshot;
+    private final NavigableMap<Long, Book> overlay;
+    private final Map<Long, Long> overlayIsbn;
+    private final long deltaPosition;
+    private final long[] overlayIds;
+    private final int[] overlayShift;
+
+    private CatalogView(CatalogSnapshot snapshot, NavigableMap<Long, Book> overlay, Map<Long, Long> overlayIsbn, long deltaPosition) {
+        this.snapshot = snapshot;
+        this.overlay = overlay;
+        this.overlayIsbn = overlayIsbn;
+        this.deltaPosition = deltaPosition;
+        this.overlayIds = new long[overlay.size()];
+        this.overlayShift = new int[overlay.size() + 1];
+        int i = 0;
+        for (Map.Entry<Long, Book> change : overlay.entrySet()) {
+            boolean inSnapshot = snapshot.indexOfId(change.getKey()) >= 0;
+            overlayIds[i] = change.getKey();
+            overlayShift[i + 1] = overlayShift[i] + (change.getValue() == null ? (inSnapshot ? -1 : 0) : (inSnapshot ? 0 : 1));
+            i++;
+        }
+    }
+
+    public static CatalogView of(CatalogSnapshot snapshot) {
+        return new CatalogView(snapshot, Collections.emptyNavigableMap(), Collections.emptyMap(), 0);
+    }
+
+    public CatalogView apply(List<BookEvent> events, long position) {
+        if (events.isEmpty()) {
+            return position == deltaPosition ? this : new CatalogView(snapshot, overlay, overlayIsbn, position);
+        }
+        NavigableMap<Long, Book> changed = new TreeMap<>(overlay);
+        Map<Long, Long> changedIsbn = new HashMap<>(overlayIsbn);
+        for (BookEvent event : events) {
+            switch (event.getType()) {
+                case DELETED:
+                    changed.put(event.getBookId(), null);
+                    break;
+                case AVAILABILITY:
+                    current(changed, event.getBookId()).ifPresent(book -> {
+                        book.setAvailable(Math.max(0, Math.min(book.getCopies(), event.getAvailable())));
+                        changed.put(book.getId(), book);
+                    });
+                    break;
+                default:
+                    Book book = event.toBook();
+                    if (event.getType() == BookEvent.Type.UPDATED) {
+                        current(changed, event.getBookId()).ifPresent(previous -> {
+                            book.setCopies(previous.getCopies());
+                            book.setAvailable(previous.getAvailable());
+                        });
+                    }
+                    changed.put(event.getBookId(), book);
+                    changedIsbn.put(event.getIsbnKey(), event.getBookId());
+            }
+        }
+        return new CatalogView(snapshot, changed, changedIsbn, position);
+    }
+
+    private Optional<Book> current(NavigableMap<Long, Book> changed, long id) {
+        if (changed.containsKey(id)) {
+            return Optional.ofNullable(copy(changed.get(id)));
+        }
+        int index = snapshot.indexOfId(id);
+        return index < 0 ? Optional.empty() : Optional.of(snapshot.book(index));
+    }
+
+    public long generation() {
+        return snapshot.generation();
+    }
+
+    public long deltaPosition() {
+        return deltaPosition;
+    }
+
+    public int overlaySize() {
+        return overlay.size();
+    }
+
+    public Optional<Book> getById(long id) {
+        if (overlay.containsKey(id)) {
+            return Optional.ofNullable(copy(overlay.get(id)));
+        }
+        int index = snapshot.indexOfId(id);
+        return index < 0 ? Optional.empty() : Optional.of(snapshot.book(index));
+    }
+
+    public Optional<Book> getByIsbnKey(long isbnKey) {
+        Long id = overlayIsbn.get(isbnKey);
+        if (id == null) {
+            int index = snapshot.indexOfIsbn(isbnKey);
+            if (index < 0) {
+                return Optional.empty();
+            }
+            id = snapshot.id(index);
+        }
+        return getById(id).filter(book -> book.getIsbnKey() == isbnKey);
+    }
+
+    public Page<Book> find(CatalogFilter filter, Pageable pageable) {
+        List<Book> page = new ArrayList<>(pageable.getPageSize());
+        long offset = pageable.getOffset();
+        long matches = 0;
+        int index = 0;
+        long fromId = Long.MIN_VALUE;
+        if (filter == null) {
+            int start = seek(offset);
+            if (start >= 0) {
+                index = start;
+                matches = booksBefore(start);
+                fromId = idAt(start);
+            }
+        }
+        Iterator<Book> changes = overlay.tailMap(fromId, true).values().stream().filter(Objects::nonNull).iterator();
+        Book change = changes.hasNext() ? changes.next() : null;
+        while ((index < snapshot.size() || change != null) && (filter != null || page.size() < pageable.getPageSize())) {
+            long snapshotId = index < snapshot.size() ? snapshot.id(index) : Long.MAX_VALUE;
+            if (change != null && change.getId() <= snapshotId) {
+                Book candidate = change;
+                change = changes.hasNext() ? changes.next() : null;
+                if (candidate.getId() == snapshotId) {
+                    index++;
+                }
+                if (filter == null || filter.matches(candidate)) {
+                    if (inPage(matches, offset, page, pageable)) {
+                        page.add(copy(candidate));
+                    }
+                    matches++;
+                }
+            } else {
+                if (!overlay.containsKey(snapshotId) && (filter == null || filter.matches(snapshot, index))) {
+                    if (inPage(matches, offset, page, pageable)) {
+                        page.add(snapshot.book(index));
+                    }
+                    matches++;
+                }
+                index++;
+            }
+        }
+        return new PageImpl<>(page, pageable, filter == null ? booksBefore(snapshot.size()) : matches);
+    }
+
+    private int seek(long offset) {
+        int low = 0;
+        int high = snapshot.size();
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (booksBefore(mid) <= offset) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private long booksBefore(int index) {
+        long id = idAt(index);
+        int low = 0;
+        int high = overlayIds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (overlayIds[mid] < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return index + overlayShift[low];
+    }
+
+    private long idAt(int index) {
+        return index < snapshot.size() ? snapshot.id(index) : Long.MAX_VALUE;
+    }
+
+    private static boolean inPage(long matches, long offset, List<Book> page, Pageable pageable) {
+        return matches >= offset && page.size() < pageable.getPageSize();
+    }
+
+    private static Book copy(Book book) {
+        return book == null ? null : book.toBuilder().build();
+    }
+}
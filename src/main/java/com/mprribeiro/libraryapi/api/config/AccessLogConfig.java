@@ -0,0 +1,21 @@
+package com.mprribeiro.libraryapi.api.config;
+
+import com.mprribeiro.libraryapi.api.filter.AccessLogFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "application.logging.access.enabled", matchIfMissing = true)
+public class AccessLogConfig {
+
+    @Bean
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilterRegistration() {
+        FilterRegistrationBean<AccessLogFilter> registration = new FilterRegistrationBean<>(new AccessLogFilter(System::nanoTime));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
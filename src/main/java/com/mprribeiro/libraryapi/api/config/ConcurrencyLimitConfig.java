@@ -0,0 +1,57 @@
+package com.mprribeiro.libraryapi.api.config;
+
+import com.mprribeiro.libraryapi.api.filter.AimdLimit;
+import com.mprribeiro.libraryapi.api.filter.ConcurrencyLimitFilter;
+import com.mprribeiro.libraryapi.api.filter.ConcurrencyLimitHealthIndicator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "application.concurrency-limit.enabled", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Value("${application.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${application.concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${application.concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${application.concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${application.concurrency-limit.latency-threshold-ms:500}")
+    private long latencyThresholdMillis;
+
+    @Value("${application.concurrency-limit.reserved-for-writes:0.25}")
+    private double reservedForWrites;
+
+    @Value("${application.concurrency-limit.degraded-window-ms:10000}")
+    private long degradedWindowMillis;
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(MeterRegistry meterRegistry) {
+        AimdLimit limit = new AimdLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyThresholdMillis, reservedForWrites);
+        return new ConcurrencyLimitFilter(limit, meterRegistry, System::nanoTime);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(ConcurrencyLimitFilter concurrencyLimitFilter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(concurrencyLimitFilter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 15);
+        return registration;
+    }
+
+    @Bean
+    public ConcurrencyLimitHealthIndicator concurrencyLimitHealthIndicator(ConcurrencyLimitFilter concurrencyLimitFilter) {
+        return new ConcurrencyLimitHealthIndicator(concurrencyLimitFilter, degradedWindowMillis);
+    }
+}
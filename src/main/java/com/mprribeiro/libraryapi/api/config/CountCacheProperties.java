@@ -0,0 +1,21 @@
+package com.mprribeiro.libraryapi.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.count-cache")
+public class CountCacheProperties {
+
+    private boolean enabled = false;
+
+    private long ttlMs = 5000;
+
+    private long approximateThreshold = 10000;
+
+    private long approximateTtlMs = 60000;
+
+    private int maxEntries = 10000;
+}
@@ -0,0 +1,24 @@
+package com.mprribeiro.libraryapi.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.loan.policy")
+public class LoanPolicyProperties {
+
+    private int defaultDays = 4;
+
+    private Map<String, Integer> bookDays = new HashMap<>();
+
+    private Map<String, Integer> customerDays = new HashMap<>();
+
+    private int maxActiveLoans = 5;
+
+    private Map<String, Integer> customerMaxActiveLoans = new HashMap<>();
+}
@@ -0,0 +1,70 @@
+package com.mprribeiro.libraryapi.api.config;
+
+import com.mprribeiro.libraryapi.api.filter.RateLimitFilter;
+import com.mprribeiro.libraryapi.api.filter.RateLimitFilter.EndpointClass;
+import com.mprribeiro.libraryapi.api.filter.RateLimitFilter.Limit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+@Configuration
+@ConditionalOnProperty(name = "application.rate-limit.enabled", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Value("${application.rate-limit.read.capacity:200}")
+    private long readCapacity;
+
+    @Value("${application.rate-limit.read.refill-per-second:100}")
+    private double readRefill;
+
+    @Value("${application.rate-limit.search.capacity:20}")
+    private long searchCapacity;
+
+    @Value("${application.rate-limit.search.refill-per-second:5}")
+    private double searchRefill;
+
+    @Value("${application.rate-limit.write.capacity:50}")
+    private long writeCapacity;
+
+    @Value("${application.rate-limit.write.refill-per-second:20}")
+    private double writeRefill;
+
+    @Value("${application.rate-limit.api-keys:}")
+    private Set<String> apiKeys;
+
+    @Value("${application.rate-limit.max-buckets:10000}")
+    private int maxBuckets;
+
+    @Value("${application.rate-limit.idle-eviction-ms:300000}")
+    private long idleEvictionMillis;
+
+    @Bean
+    public RateLimitFilter rateLimitFilter() {
+        Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+        limits.put(EndpointClass.READ, new Limit(readCapacity, readRefill));
+        limits.put(EndpointClass.SEARCH, new Limit(searchCapacity, searchRefill));
+        limits.put(EndpointClass.WRITE, new Limit(writeCapacity, writeRefill));
+        return new RateLimitFilter(limits, apiKeys, maxBuckets, idleEvictionMillis, System::nanoTime);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Scheduled(fixedDelayString = "${application.rate-limit.idle-eviction-ms:300000}")
+    public void evictIdleBuckets() {
+        rateLimitFilter().evictIdleBuckets();
+    }
+}
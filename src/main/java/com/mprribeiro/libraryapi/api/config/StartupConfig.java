@@ -0,0 +1,38 @@
+package com.mprribeiro.libraryapi.api.config;
+
+import com.mprribeiro.libraryapi.api.journal.LoanProjection;
+import com.mprribeiro.libraryapi.api.resource.BookController;
+import com.mprribeiro.libraryapi.api.resource.LoanController;
+import com.mprribeiro.libraryapi.api.service.BookService;
+import com.mprribeiro.libraryapi.api.service.LoanService;
+import com.mprribeiro.libraryapi.api.service.ScheduleService;
+import org.modelmapper.ModelMapper;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter requestPathExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                BookController.class,
+                LoanController.class,
+                BookService.class,
+                LoanService.class,
+                ModelMapper.class,
+                ScheduleService.class,
+                LoanProjection.class);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "application.startup.exit-on-ready", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> exitOnReadyListener() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -2,7 +2,10 @@ package com.mprribeiro.libraryapi.api.dto;
 
 import lombok.*;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
+import java.util.Arrays;
+import java.util.List;
 
 @Data
 @Builder
@@ -10,6 +13,8 @@ import javax.validation.constraints.NotEmpty;
 @NoArgsConstructor
 public class BookDTO {
 
+    public static final List<String> FIELDS = Arrays.asList("id", "title", "author", "isbn", "copies", "available");
+
     private Long id;
 
     @NotEmpty
@@ -20,4 +25,9 @@ public class BookDTO {
 
     @NotEmpty
     private String isbn;
+
+    @Min(1)
+    private Integer copies;
+
+    private Integer available;
 }
@@ -0,0 +1,16 @@
+package com.mprribeiro.libraryapi.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorEnvelope<T> {
+
+    private final List<T> items;
+    private final String next;
+}
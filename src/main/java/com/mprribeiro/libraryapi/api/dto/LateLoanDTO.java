@@ -0,0 +1,16 @@
+package com.mprribeiro.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LateLoanDTO {
+    private Long id;
+    private String email;
+    private String title;
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.NotEmpty;
+import java.util.Arrays;
+import java.util.List;
 
 @Data
 @Builder
@@ -13,6 +15,9 @@ import javax.validation.constraints.NotEmpty;
 @AllArgsConstructor
 public class LoanDTO {
 
+    public static final List<String> FIELDS = Arrays.asList("id", "isbn", "customer", "email",
+            "book.id", "book.title", "book.author", "book.isbn");
+
     private Long id;
     @NotEmpty
     private String isbn;
@@ -0,0 +1,25 @@
+package com.mprribeiro.libraryapi.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageEnvelope<T> {
+
+    private final List<T> items;
+    private final Integer next;
+    private final Long total;
+
+    public static <T> PageEnvelope<T> of(Slice<T> slice) {
+        Integer next = slice.hasNext() ? slice.getNumber() + 1 : null;
+        Long total = slice instanceof Page ? ((Page<T>) slice).getTotalElements() : null;
+        return new PageEnvelope<>(slice.getContent(), next, total);
+    }
+}
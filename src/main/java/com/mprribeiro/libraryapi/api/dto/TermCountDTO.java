@@ -0,0 +1,15 @@
+package com.mprribeiro.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TermCountDTO {
+    private String term;
+    private long count;
+}
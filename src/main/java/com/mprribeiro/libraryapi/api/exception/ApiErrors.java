@@ -4,24 +4,29 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class ApiErrors {
 
-    private List<String> errors;
+    private final List<String> errors;
 
     public ApiErrors(BindingResult bindingResult) {
-        this.errors = new ArrayList<>();
-        bindingResult.getAllErrors().forEach(error -> this.errors.add(error.getDefaultMessage()));
+        List<String> errors = new ArrayList<>();
+        bindingResult.getAllErrors().forEach(error -> errors.add(error.getDefaultMessage()));
+        this.errors = Collections.unmodifiableList(errors);
     }
 
     public ApiErrors(BusinessException ex) {
-        this.errors = Arrays.asList(ex.getMessage());
+        this(ex.getMessage());
     }
 
     public ApiErrors(ResponseStatusException ex) {
-        this.errors = Arrays.asList(ex.getReason());
+        this(ex.getReason());
+    }
+
+    public ApiErrors(String message) {
+        this.errors = Collections.singletonList(message);
     }
 
     public List<String> getErrors() {
@@ -0,0 +1,34 @@
+package com.mprribeiro.libraryapi.api.exception;
+
+public enum BusinessError {
+
+    INVALID_ISBN("Isbn inválido!"),
+    ISBN_ALREADY_REGISTERED("Isbn já cadastrado!"),
+    BOOK_ALREADY_LOANED("Livro já emprestado!"),
+    LOAN_ALREADY_RETURNED("Empréstimo já devolvido!"),
+    LOAN_LIMIT_REACHED("Limite de empréstimos do cliente atingido!"),
+    INVALID_FIELD("Campo inválido!"),
+    INVALID_CURSOR("Cursor inválido!");
+
+    private final String message;
+    private final ApiErrors apiErrors;
+    private final BusinessException exception;
+
+    BusinessError(String message) {
+        this.message = message;
+        this.apiErrors = new ApiErrors(message);
+        this.exception = new BusinessException(this);
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public ApiErrors getApiErrors() {
+        return apiErrors;
+    }
+
+    public BusinessException exception() {
+        return exception;
+    }
+}
@@ -1,7 +1,20 @@
 package com.mprribeiro.libraryapi.api.exception;
 
 public class BusinessException extends RuntimeException {
+
+    private final BusinessError error;
+
     public BusinessException(String s) {
-        super(s);
+        super(s, null, false, false);
+        this.error = null;
+    }
+
+    BusinessException(BusinessError error) {
+        super(error.getMessage(), null, false, false);
+        this.error = error;
+    }
+
+    public BusinessError getError() {
+        return error;
     }
 }
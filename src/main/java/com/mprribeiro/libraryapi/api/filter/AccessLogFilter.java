@@ -0,0 +1,55 @@
+package com.mprribeiro.libraryapi.api.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger("access");
+
+    private final LongSupplier clock;
+
+    public AccessLogFilter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        if (!log.isInfoEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = clock.getAsLong();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            log.info("request", event(request, response, clock.getAsLong() - start));
+        }
+    }
+
+    static Map<String, Object> event(HttpServletRequest request, HttpServletResponse response, long latencyNanos) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object ids = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("method", request.getMethod());
+        event.put("route", route != null ? route : request.getRequestURI());
+        event.put("status", response.getStatus());
+        event.put("latencyMs", latencyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        if (ids instanceof Map && !((Map<?, ?>) ids).isEmpty()) {
+            event.put("ids", ids);
+        }
+        return event;
+    }
+}
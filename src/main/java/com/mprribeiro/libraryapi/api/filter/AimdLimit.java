@@ -0,0 +1,64 @@
+package com.mprribeiro.libraryapi.api.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final double nonPriorityShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private long nextBackoffNanos = Long.MIN_VALUE;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                     long latencyThresholdMillis, double reservedForPriority) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.nonPriorityShare = 1 - reservedForPriority;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public boolean tryAcquire(boolean priority) {
+        int current = limit;
+        int allowed = priority ? current : Math.max(1, (int) (current * nonPriorityShare));
+        while (true) {
+            int active = inFlight.get();
+            if (active >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(active, active + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, long nowNanos, boolean dropped) {
+        int active = inFlight.getAndDecrement();
+        onSample(latencyNanos, nowNanos, active, dropped);
+    }
+
+    private synchronized void onSample(long latencyNanos, long nowNanos, int active, boolean dropped) {
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            if (nowNanos >= nextBackoffNanos) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+                nextBackoffNanos = nowNanos + latencyThresholdNanos;
+            }
+        } else if (active * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,80 @@
+package com.mprribeiro.libraryapi.api.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongSupplier;
+
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] REJECTION_BODY = "{\"errors\":[\"Service overloaded\"]}".getBytes(StandardCharsets.UTF_8);
+
+    private final AimdLimit limit;
+    private final LongSupplier clock;
+    private final Counter rejectedWrites;
+    private final Counter rejectedReads;
+    private volatile long lastRejectionNanos;
+    private volatile boolean rejected;
+
+    public ConcurrencyLimitFilter(AimdLimit limit, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.limit = limit;
+        this.clock = clock;
+        this.rejectedWrites = meterRegistry.counter("concurrency_limit.rejected", "priority", "write");
+        this.rejectedReads = meterRegistry.counter("concurrency_limit.rejected", "priority", "read");
+        Gauge.builder("concurrency_limit.limit", limit, AimdLimit::getLimit).register(meterRegistry);
+        Gauge.builder("concurrency_limit.in_flight", limit, AimdLimit::getInFlight).register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        boolean write = isWrite(request.getMethod());
+        if (!limit.tryAcquire(write)) {
+            lastRejectionNanos = clock.getAsLong();
+            rejected = true;
+            (write ? rejectedWrites : rejectedReads).increment();
+            reject(response);
+            return;
+        }
+
+        long start = clock.getAsLong();
+        boolean dropped = true;
+        try {
+            chain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            long now = clock.getAsLong();
+            limit.release(now - start, now, dropped);
+        }
+    }
+
+    public boolean isShedding(long windowNanos) {
+        return rejected && clock.getAsLong() - lastRejectionNanos < windowNanos;
+    }
+
+    public AimdLimit getLimit() {
+        return limit;
+    }
+
+    static boolean isWrite(String method) {
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(REJECTION_BODY.length);
+        response.getOutputStream().write(REJECTION_BODY);
+    }
+}
@@ -0,0 +1,29 @@
+package com.mprribeiro.libraryapi.api.filter;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.concurrent.TimeUnit;
+
+public class ConcurrencyLimitHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Requests are being shed by the concurrency limit");
+
+    private final ConcurrencyLimitFilter filter;
+    private final long windowNanos;
+
+    public ConcurrencyLimitHealthIndicator(ConcurrencyLimitFilter filter, long windowMillis) {
+        this.filter = filter;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    @Override
+    public Health health() {
+        AimdLimit limit = filter.getLimit();
+        return Health.status(filter.isShedding(windowNanos) ? DEGRADED : Status.UP)
+                .withDetail("limit", limit.getLimit())
+                .withDetail("inFlight", limit.getInFlight())
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.mprribeiro.libraryapi.api.filter;
+
+import com.mprribeiro.libraryapi.api.support.QueryCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final int budget;
+    private final DistributionSummary queries;
+    private final Counter exceeded;
+
+    public QueryBudgetFilter(int budget, MeterRegistry meterRegistry) {
+        this.budget = budget;
+        this.queries = DistributionSummary.builder("http.server.requests.queries").register(meterRegistry);
+        this.exceeded = meterRegistry.counter("query_budget.exceeded");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        QueryCounter.Scope scope = QueryCounter.open(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            queries.record(scope.getCount());
+            if (scope.getCount() > budget) {
+                exceeded.increment();
+                log.warn("{} executed {} queries (budget {}): {}", scope.getName(), scope.getCount(), budget, scope.getStatements());
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.mprribeiro.libraryapi.api.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_HEADER = "X-Api-Key";
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final byte[] REJECTION_BODY = "{\"errors\":[\"Too many requests\"]}".getBytes(StandardCharsets.UTF_8);
+
+    public enum EndpointClass {
+        READ, SEARCH, WRITE
+    }
+
+    public static final class Limit {
+        private final long capacity;
+        private final double refillPerSecond;
+
+        public Limit(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    private final Map<EndpointClass, Limit> limits;
+    private final Set<String> apiKeys;
+    private final int maxBuckets;
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public RateLimitFilter(Map<EndpointClass, Limit> limits, Set<String> apiKeys, int maxBuckets, long idleMillis, LongSupplier clock) {
+        this.limits = new EnumMap<>(limits);
+        this.apiKeys = new HashSet<>(apiKeys);
+        this.maxBuckets = maxBuckets;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        String route = route(request);
+        EndpointClass endpointClass = classify(request.getMethod(), route);
+        String key = client(request) + ' ' + request.getMethod() + ' ' + route;
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            Limit limit = limits.get(endpointClass);
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.capacity, limit.refillPerSecond, now));
+            if (buckets.size() > maxBuckets) {
+                evictOverflow(now);
+            }
+        }
+
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    public void evictIdleBuckets() {
+        long now = clock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void evictOverflow(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+            int excess = buckets.size() - (maxBuckets - maxBuckets / 10);
+            if (excess > 0) {
+                List<Map.Entry<String, Long>> lastUsed = buckets.entrySet().stream()
+                        .map(entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().lastUsed()))
+                        .collect(Collectors.toList());
+                lastUsed.sort(Map.Entry.comparingByValue());
+                lastUsed.stream().limit(excess).forEach(entry -> buckets.remove(entry.getKey()));
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    static EndpointClass classify(String method, String route) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return EndpointClass.WRITE;
+        }
+        return route.endsWith("{id}") || route.endsWith("/suggest") ? EndpointClass.READ : EndpointClass.SEARCH;
+    }
+
+    private static String route(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    private String client(HttpServletRequest request) {
+        String apiKey = request.getHeader(CLIENT_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(REJECTION_BODY.length);
+        response.getOutputStream().write(REJECTION_BODY);
+    }
+}
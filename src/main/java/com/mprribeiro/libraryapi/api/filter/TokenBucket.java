@@ -0,0 +1,50 @@
+package com.mprribeiro.libraryapi.api.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            long now = Math.max(nowNanos, current.timestamp);
+            double tokens = Math.min(capacity, current.tokens + (now - current.timestamp) * tokensPerNano);
+            if (tokens < 1) {
+                if (state.compareAndSet(current, new State(tokens, now))) {
+                    return (long) Math.ceil((1 - tokens) / tokensPerNano);
+                }
+            } else if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - lastUsed() > idleNanos;
+    }
+
+    public long lastUsed() {
+        return state.get().timestamp;
+    }
+
+    private static final class State {
+        private final double tokens;
+        private final long timestamp;
+
+        private State(double tokens, long timestamp) {
+            this.tokens = tokens;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.mprribeiro.libraryapi.api.jfr;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Name("libraryapi.BookService")
+@Label("Book Service")
+@Description("A BookService call with the ISBN or id it resolved")
+public class BookServiceEvent extends LibraryEvent {
+
+    @Label("ISBN")
+    long isbn;
+
+    @Label("Book Id")
+    long bookId;
+
+    @Label("Rows")
+    int rows;
+
+    public static BookServiceEvent start(String operation) {
+        BookServiceEvent event = new BookServiceEvent();
+        event.begin(operation);
+        return event;
+    }
+
+    public static <T> T timed(String operation, Function<BookServiceEvent, T> call) {
+        return timed(start(operation), call);
+    }
+
+    public static void run(String operation, Consumer<BookServiceEvent> call) {
+        timed(start(operation), event -> {
+            call.accept(event);
+            return null;
+        });
+    }
+
+    public BookServiceEvent isbn(long isbnKey) {
+        if (isEnabled()) {
+            this.isbn = isbnKey;
+        }
+        return this;
+    }
+
+    public BookServiceEvent book(Book book) {
+        if (book != null && isEnabled()) {
+            this.isbn = book.getIsbnKey();
+            this.bookId = book.getId() == null ? 0 : book.getId();
+        }
+        return this;
+    }
+
+    public BookServiceEvent rows(int rows) {
+        if (isEnabled()) {
+            this.rows = rows;
+        }
+        return this;
+    }
+
+    public BookServiceEvent outcome(String outcome) {
+        if (isEnabled()) {
+            this.outcome = outcome;
+        }
+        return this;
+    }
+}
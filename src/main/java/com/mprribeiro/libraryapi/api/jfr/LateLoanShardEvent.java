@@ -0,0 +1,42 @@
+package com.mprribeiro.libraryapi.api.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("libraryapi.LateLoanShard")
+@Label("Late Loan Shard")
+@Description("One shard of the scheduled late-loan job")
+public class LateLoanShardEvent extends LibraryEvent {
+
+    @Label("Run")
+    String run;
+
+    @Label("Shard")
+    int shard;
+
+    @Label("Shards")
+    int shards;
+
+    @Label("Rows")
+    int rows;
+
+    public static LateLoanShardEvent start(String run, int shard, int shards) {
+        LateLoanShardEvent event = new LateLoanShardEvent();
+        event.run = run;
+        event.shard = shard;
+        event.shards = shards;
+        event.begin("lateLoanShard");
+        return event;
+    }
+
+    public LateLoanShardEvent rows(int rows) {
+        this.rows = rows;
+        return this;
+    }
+
+    public LateLoanShardEvent outcome(String outcome) {
+        this.outcome = outcome;
+        return this;
+    }
+}
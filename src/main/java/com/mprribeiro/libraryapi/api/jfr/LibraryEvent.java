@@ -0,0 +1,44 @@
+package com.mprribeiro.libraryapi.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Function;
+
+@Category("Library API")
+@StackTrace(false)
+public abstract class LibraryEvent extends Event {
+
+    static final String ERROR = "error";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Outcome")
+    String outcome;
+
+    void begin(String operation) {
+        this.operation = operation;
+        begin();
+    }
+
+    static <E extends LibraryEvent, T> T timed(E event, Function<E, T> call) {
+        try {
+            return call.apply(event);
+        } finally {
+            event.finish();
+        }
+    }
+
+    public void finish() {
+        end();
+        if (shouldCommit()) {
+            if (outcome == null) {
+                outcome = ERROR;
+            }
+            commit();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.mprribeiro.libraryapi.api.jfr;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Name("libraryapi.LoanService")
+@Label("Loan Service")
+@Description("A LoanService call with the book and loan it touched")
+public class LoanServiceEvent extends LibraryEvent {
+
+    @Label("ISBN")
+    long isbn;
+
+    @Label("Book Id")
+    long bookId;
+
+    @Label("Loan Id")
+    long loanId;
+
+    @Label("Rows")
+    int rows;
+
+    public static LoanServiceEvent start(String operation) {
+        LoanServiceEvent event = new LoanServiceEvent();
+        event.begin(operation);
+        return event;
+    }
+
+    public static <T> T timed(String operation, Function<LoanServiceEvent, T> call) {
+        return timed(start(operation), call);
+    }
+
+    public static void run(String operation, Consumer<LoanServiceEvent> call) {
+        timed(start(operation), event -> {
+            call.accept(event);
+            return null;
+        });
+    }
+
+    public LoanServiceEvent isbn(long isbnKey) {
+        if (isEnabled()) {
+            this.isbn = isbnKey;
+        }
+        return this;
+    }
+
+    public LoanServiceEvent book(Book book) {
+        if (book != null && isEnabled()) {
+            this.isbn = book.getIsbnKey();
+            this.bookId = book.getId() == null ? 0 : book.getId();
+        }
+        return this;
+    }
+
+    public LoanServiceEvent loan(Loan loan) {
+        if (loan != null && isEnabled()) {
+            this.loanId = loan.getId() == null ? 0 : loan.getId();
+            book(loan.getBook());
+        }
+        return this;
+    }
+
+    public LoanServiceEvent rows(int rows) {
+        if (isEnabled()) {
+            this.rows = rows;
+        }
+        return this;
+    }
+
+    public LoanServiceEvent outcome(String outcome) {
+        if (isEnabled()) {
+            this.outcome = outcome;
+        }
+        return this;
+    }
+}
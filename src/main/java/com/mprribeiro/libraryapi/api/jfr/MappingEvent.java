@@ -0,0 +1,26 @@
+package com.mprribeiro.libraryapi.api.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("libraryapi.Mapping")
+@Label("DTO Mapping")
+@Description("Entity to DTO mapping done by a controller before serialization")
+public class MappingEvent extends LibraryEvent {
+
+    @Label("Rows")
+    int rows;
+
+    public static MappingEvent start(String endpoint) {
+        MappingEvent event = new MappingEvent();
+        event.begin(endpoint);
+        return event;
+    }
+
+    public void finish(int rows) {
+        this.rows = rows;
+        this.outcome = "mapped";
+        finish();
+    }
+}
@@ -0,0 +1,114 @@
+package com.mprribeiro.libraryapi.api.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public final class RecordingSummary {
+
+    public static final String EVENT_PREFIX = "libraryapi.";
+
+    private RecordingSummary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: RecordingSummary <recording.jfr>...");
+            System.exit(1);
+        }
+        for (String arg : args) {
+            System.out.println(arg);
+            System.out.println(format(summarize(Paths.get(arg))));
+        }
+    }
+
+    public static Map<String, OperationStats> summarize(Path recording) throws IOException {
+        Map<String, OperationStats> stats = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            String type = event.getEventType().getName();
+            if (!type.startsWith(EVENT_PREFIX)) {
+                continue;
+            }
+            String key = type.substring(EVENT_PREFIX.length()) + " " + event.getString("operation");
+            stats.computeIfAbsent(key, OperationStats::new)
+                    .add(event.getDuration().toNanos(), event.getString("outcome"), rowsOf(event));
+        }
+        return stats;
+    }
+
+    public static String format(Map<String, OperationStats> stats) {
+        List<OperationStats> ordered = new ArrayList<>(stats.values());
+        ordered.sort(Comparator.comparingLong(OperationStats::getTotalNanos).reversed());
+        StringBuilder out = new StringBuilder(String.format("%-36s %8s %10s %10s %10s %10s %10s  %s%n",
+                "operation", "count", "total ms", "p50 ms", "p99 ms", "max ms", "rows", "outcomes"));
+        for (OperationStats operation : ordered) {
+            out.append(String.format("%-36s %8d %10.1f %10.3f %10.3f %10.3f %10d  %s%n",
+                    operation.getName(), operation.getCount(), millis(operation.getTotalNanos()),
+                    millis(operation.percentile(50)), millis(operation.percentile(99)), millis(operation.percentile(100)),
+                    operation.getRows(), operation.getOutcomes()));
+        }
+        return out.toString();
+    }
+
+    private static long rowsOf(RecordedEvent event) {
+        return event.hasField("rows") ? event.getInt("rows") : 0;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public static final class OperationStats {
+
+        @Getter
+        private final String name;
+        @Getter
+        private final Map<String, Long> outcomes = new TreeMap<>();
+        @Getter
+        private int count;
+        @Getter
+        private long totalNanos;
+        @Getter
+        private long rows;
+        private long[] durations = new long[16];
+        private boolean sorted;
+
+        OperationStats(String name) {
+            this.name = name;
+        }
+
+        void add(long nanos, String outcome, long rows) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = nanos;
+            totalNanos += nanos;
+            this.rows += rows;
+            outcomes.merge(String.valueOf(outcome), 1L, Long::sum);
+            sorted = false;
+        }
+
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(durations, 0, count);
+                sorted = true;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return durations[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.mprribeiro.libraryapi.api.journal;
+
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString(exclude = "loan")
+@AllArgsConstructor
+public class LoanEvent {
+
+    public enum Type {
+        CREATED, RETURNED;
+
+        int code() {
+            return ordinal() + 1;
+        }
+
+        static Type of(int code) {
+            return values()[code - 1];
+        }
+    }
+
+    private final Type type;
+    private final long loanId;
+    private final long bookId;
+    private final long timestamp;
+    private final Loan loan;
+
+    public LoanEvent(Type type, long loanId, long bookId, long timestamp) {
+        this(type, loanId, bookId, timestamp, null);
+    }
+
+    public static LoanEvent created(Loan loan) {
+        return of(Type.CREATED, loan);
+    }
+
+    public static LoanEvent returned(Loan loan) {
+        return of(Type.RETURNED, loan);
+    }
+
+    private static LoanEvent of(Type type, Loan loan) {
+        long bookId = loan.getBook() == null || loan.getBook().getId() == null ? 0 : loan.getBook().getId();
+        return new LoanEvent(type, loan.getId(), bookId, System.currentTimeMillis(), loan);
+    }
+}
@@ -0,0 +1,10 @@
+package com.mprribeiro.libraryapi.api.journal;
+
+import java.util.function.Consumer;
+
+public interface LoanJournal {
+
+    void append(LoanEvent event);
+
+    long replay(Consumer<LoanEvent> consumer);
+}
@@ -0,0 +1,65 @@
+package com.mprribeiro.libraryapi.api.journal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoanProjection {
+
+    private final LoanJournal journal;
+
+    private final Set<Long> openLoans = ConcurrentHashMap.newKeySet();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong returned = new AtomicLong();
+
+    @PostConstruct
+    public void rebuild() {
+        long start = System.nanoTime();
+        long events = journal.replay(this::apply);
+        if (events > 0) {
+            log.info("Replayed {} loan events in {} ms", events, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void apply(LoanEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+                if (openLoans.add(event.getLoanId())) {
+                    created.incrementAndGet();
+                }
+                break;
+            case RETURNED:
+                if (openLoans.remove(event.getLoanId())) {
+                    returned.incrementAndGet();
+                }
+                break;
+        }
+    }
+
+    public boolean isOpen(long loanId) {
+        return openLoans.contains(loanId);
+    }
+
+    public long getOpenLoans() {
+        return openLoans.size();
+    }
+
+    public long getCreatedLoans() {
+        return created.get();
+    }
+
+    public long getReturnedLoans() {
+        return returned.get();
+    }
+}
@@ -0,0 +1,247 @@
+package com.mprribeiro.libraryapi.api.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.journal.enabled", havingValue = "true")
+public class MappedLoanJournal implements LoanJournal, DisposableBean {
+
+    static final int RECORD_SIZE = 32;
+    private static final String SEGMENT_PREFIX = "loans-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushIntervalMillis;
+    private final boolean sync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private final Thread flusher;
+
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private long written;
+    private long durable;
+    private volatile boolean running = true;
+
+    public MappedLoanJournal(@Value("${application.journal.dir:journal}") String directory,
+                             @Value("${application.journal.segment-size:16777216}") int segmentSize,
+                             @Value("${application.journal.flush-interval-ms:5}") long flushIntervalMillis,
+                             @Value("${application.journal.sync:true}") boolean sync) throws IOException {
+        if (segmentSize < RECORD_SIZE || segmentSize % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("Segment size must be a multiple of " + RECORD_SIZE);
+        }
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.sync = sync;
+        Files.createDirectories(this.directory);
+        open();
+        this.flusher = new Thread(this::flushLoop, "loan-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void append(LoanEvent event) {
+        long target;
+        lock.lock();
+        try {
+            if (!segment.hasRemaining()) {
+                roll();
+            }
+            int start = segment.position();
+            segment.putLong(event.getLoanId());
+            segment.putLong(event.getBookId());
+            segment.putLong(event.getTimestamp());
+            segment.putInt(event.getType().code());
+            segment.putInt(checksum(segment, start));
+            written += RECORD_SIZE;
+            target = written;
+            pending.signal();
+            if (sync) {
+                while (durable < target && running) {
+                    flushed.await();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long replay(Consumer<LoanEvent> consumer) {
+        long count = 0;
+        for (Path file : segments()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                CRC32 replayCrc = new CRC32();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    int start = buffer.position();
+                    long loanId = buffer.getLong();
+                    long bookId = buffer.getLong();
+                    long timestamp = buffer.getLong();
+                    int type = buffer.getInt();
+                    int checksum = buffer.getInt();
+                    if (type == 0) {
+                        break;
+                    }
+                    if (checksum != checksum(replayCrc, buffer, start)) {
+                        log.warn("Torn record at {} of {}, stopping replay of segment", start, file);
+                        break;
+                    }
+                    consumer.accept(new LoanEvent(LoanEvent.Type.of(type), loanId, bookId, timestamp));
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(1));
+        lock.lock();
+        try {
+            segment.force();
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            MappedByteBuffer target;
+            long position;
+            lock.lock();
+            try {
+                while (running && durable == written) {
+                    pending.await(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                }
+                target = segment;
+                position = written;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            target.force();
+            lock.lock();
+            try {
+                durable = Math.max(durable, position);
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        List<Path> files = segments();
+        segmentIndex = files.isEmpty() ? 0 : indexOf(files.get(files.size() - 1));
+        segment = map(segmentIndex);
+        while (segment.remaining() >= RECORD_SIZE && segment.getInt(segment.position() + 24) != 0) {
+            int start = segment.position();
+            if (segment.getInt(start + 28) != checksum(segment, start)) {
+                log.warn("Torn record at {} of segment {}, truncating journal", start, segmentIndex);
+                truncate(start);
+                break;
+            }
+            segment.position(start + RECORD_SIZE);
+        }
+        written = (long) segmentIndex * segmentSize + segment.position();
+        durable = written;
+    }
+
+    private void truncate(int start) {
+        ByteBuffer tail = segment.duplicate();
+        tail.position(start);
+        byte[] zeros = new byte[RECORD_SIZE * 128];
+        while (tail.hasRemaining()) {
+            tail.put(zeros, 0, Math.min(zeros.length, tail.remaining()));
+        }
+        segment.force();
+    }
+
+    private void roll() {
+        segment.force();
+        durable = written;
+        try {
+            segment = map(++segmentIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        flushed.signalAll();
+    }
+
+    private MappedByteBuffer map(int index) throws IOException {
+        Path file = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int indexOf(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private int checksum(ByteBuffer buffer, int start) {
+        return checksum(crc, buffer, start);
+    }
+
+    private static int checksum(CRC32 crc, ByteBuffer buffer, int start) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(start).limit(start + RECORD_SIZE - 4);
+        crc.reset();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+}
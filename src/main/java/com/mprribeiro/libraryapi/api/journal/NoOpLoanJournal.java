@@ -0,0 +1,20 @@
+package com.mprribeiro.libraryapi.api.journal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "application.journal.enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpLoanJournal implements LoanJournal {
+
+    @Override
+    public void append(LoanEvent event) {
+    }
+
+    @Override
+    public long replay(Consumer<LoanEvent> consumer) {
+        return 0;
+    }
+}
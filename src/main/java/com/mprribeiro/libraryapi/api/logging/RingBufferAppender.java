@@ -0,0 +1,200 @@
+package com.mprribeiro.libraryapi.api.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import com.mprribeiro.libraryapi.api.support.RingBuffer;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+
+    public enum DropPolicy {
+        DROP_NEWEST, DROP_OLDEST, BLOCK
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LongAdder dropped = new LongAdder();
+    private boolean async = true;
+    private int capacity = 8192;
+    private DropPolicy dropPolicy = DropPolicy.DROP_NEWEST;
+    private long maxFlushTimeMillis = 1000;
+    private RingBuffer<ILoggingEvent> buffer;
+    private Thread worker;
+    private volatile boolean running;
+    private volatile boolean idle;
+
+    @Override
+    public void start() {
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No appender attached to ring buffer appender [" + name + "]");
+            return;
+        }
+        if (async) {
+            buffer = new RingBuffer<>(capacity);
+            running = true;
+            worker = new Thread(this::drain, "log-ring-" + name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        if (worker != null) {
+            running = false;
+            LockSupport.unpark(worker);
+            try {
+                worker.join(maxFlushTimeMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                addWarn("Ring buffer appender [" + name + "] stopped with " + buffer.size() + " queued events");
+            }
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (!async) {
+            appenders.appendLoopOnAppenders(event);
+            return;
+        }
+        event.prepareForDeferredProcessing();
+        if (buffer.offer(event) || offerWhenFull(event)) {
+            if (idle) {
+                LockSupport.unpark(worker);
+            }
+        }
+    }
+
+    private boolean offerWhenFull(ILoggingEvent event) {
+        switch (dropPolicy) {
+            case DROP_OLDEST:
+                while (!buffer.offer(event)) {
+                    if (buffer.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+                return true;
+            case BLOCK:
+                while (!buffer.offer(event)) {
+                    if (!running) {
+                        dropped.increment();
+                        return false;
+                    }
+                    LockSupport.unpark(worker);
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+                return true;
+            default:
+                dropped.increment();
+                return false;
+        }
+    }
+
+    private void drain() {
+        while (running || !buffer.isEmpty()) {
+            ILoggingEvent event = buffer.poll();
+            if (event != null) {
+                appenders.appendLoopOnAppenders(event);
+                continue;
+            }
+            idle = true;
+            if (buffer.isEmpty() && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getQueueSize() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public DropPolicy getDropPolicy() {
+        return dropPolicy;
+    }
+
+    public void setDropPolicy(DropPolicy dropPolicy) {
+        this.dropPolicy = dropPolicy;
+    }
+
+    public long getMaxFlushTimeMillis() {
+        return maxFlushTimeMillis;
+    }
+
+    public void setMaxFlushTimeMillis(long maxFlushTimeMillis) {
+        this.maxFlushTimeMillis = maxFlushTimeMillis;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,51 @@
+package com.mprribeiro.libraryapi.api.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class RingBufferMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (RingBufferAppender appender : findAppenders().values()) {
+            FunctionCounter.builder("logging.ring_buffer.dropped", appender, RingBufferAppender::getDroppedCount)
+                    .tag("appender", appender.getName())
+                    .register(registry);
+            Gauge.builder("logging.ring_buffer.size", appender, RingBufferAppender::getQueueSize)
+                    .tag("appender", appender.getName())
+                    .register(registry);
+        }
+    }
+
+    static Map<String, RingBufferAppender> findAppenders() {
+        Map<String, RingBufferAppender> appenders = new LinkedHashMap<>();
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (!(factory instanceof LoggerContext)) {
+            return appenders;
+        }
+        for (Logger logger : ((LoggerContext) factory).getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> iterator = logger.iteratorForAppenders();
+            while (iterator.hasNext()) {
+                Appender<ILoggingEvent> appender = iterator.next();
+                if (appender instanceof RingBufferAppender) {
+                    appenders.putIfAbsent(appender.getName(), (RingBufferAppender) appender);
+                }
+            }
+        }
+        return appenders;
+    }
+}
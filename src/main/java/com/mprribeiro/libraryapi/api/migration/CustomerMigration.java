@@ -0,0 +1,24 @@
+package com.mprribeiro.libraryapi.api.migration;
+
+import com.mprribeiro.libraryapi.api.model.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CustomerMigration implements ApplicationRunner {
+
+    private final CustomerRepository repository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int migrated = repository.backfillFromLoans();
+        if (migrated > 0) {
+            log.info("Backfilled {} customers from loans", migrated);
+        }
+    }
+}
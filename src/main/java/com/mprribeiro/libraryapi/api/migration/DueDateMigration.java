@@ -0,0 +1,54 @@
+package com.mprribeiro.libraryapi.api.migration;
+
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.model.repository.LoanRepository;
+import com.mprribeiro.libraryapi.api.service.LoanPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Slf4j
+@Component
+public class DueDateMigration implements ApplicationRunner {
+
+    private final LoanRepository repository;
+    private final LoanPolicy loanPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public DueDateMigration(LoanRepository repository,
+                            LoanPolicy loanPolicy,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${application.migration.batch-size:1000}") int batchSize) {
+        this.repository = repository;
+        this.loanPolicy = loanPolicy;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long migrated = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> migrateBatch());
+            migrated += batch;
+        } while (batch == batchSize);
+        if (migrated > 0) {
+            log.info("Backfilled due date of {} loans", migrated);
+        }
+    }
+
+    private int migrateBatch() {
+        List<Loan> loans = repository.findByDueDateIsNull(PageRequest.of(0, batchSize));
+        loans.forEach(loan -> loan.setDueDate(loanPolicy.dueDateFor(loan)));
+        repository.saveAll(loans);
+        return loans.size();
+    }
+}
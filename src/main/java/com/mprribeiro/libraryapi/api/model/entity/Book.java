@@ -6,11 +6,11 @@ import javax.persistence.*;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table
+@Table(indexes = @Index(name = "idx_book_isbn_key", columnList = "isbn_key", unique = true))
 public class Book {
 
     @Id
@@ -27,6 +27,19 @@ public class Book {
     @Column
     private String isbn;
 
+    @Column(name = "isbn_key", nullable = false)
+    private long isbnKey;
+
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private int copies = 1;
+
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private int available = 1;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "book", fetch = FetchType.LAZY)
     private List<Loan> loans;
 
@@ -0,0 +1,39 @@
+package com.mprribeiro.libraryapi.api.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+public class Customer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Id
+    @Column(name = "customer_key")
+    private String key;
+
+    @Column
+    private String name;
+
+    @Column
+    private String email;
+
+    @Column(name = "active_loans", nullable = false, updatable = false)
+    private int activeLoans;
+
+    public static String keyOf(String name) {
+        return name == null ? null : WHITESPACE.matcher(name).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
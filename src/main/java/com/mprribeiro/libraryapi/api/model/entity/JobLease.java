@@ -0,0 +1,31 @@
+package com.mprribeiro.libraryapi.api.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+public class JobLease {
+
+    @Id
+    private String name;
+
+    @Column
+    private String owner;
+
+    @Column
+    private LocalDateTime leaseUntil;
+
+    @Column
+    private LocalDateTime completedAt;
+}
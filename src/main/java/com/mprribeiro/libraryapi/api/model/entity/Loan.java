@@ -7,14 +7,23 @@ import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_loan_book_status", columnList = "id_book, status"),
+        @Index(name = "idx_loan_status_due_date", columnList = "status, due_date, notice_bucket"),
+        @Index(name = "idx_loan_book_loan_date", columnList = "id_book, loan_date, id")
+})
 public class Loan {
 
+    public static final int NOTICE_BUCKETS = 1024;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -29,11 +38,33 @@ public class Loan {
     @ManyToOne
     private Book book;
 
-    @Column
+    @Column(name = "loan_date")
     private LocalDate loanDate;
 
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Builder.Default
+    private LoanStatus status = LoanStatus.OPEN;
+
     @Column
-    private Boolean returned;
+    private LocalDateTime returnedAt;
+
+    @Column(name = "late_notice_on")
+    private LocalDate lateNoticeOn;
+
+    @Column(name = "notice_bucket")
+    private Integer noticeBucket;
 
+    public static int noticeBucketOf(String email) {
+        return email == null ? 0 : Math.floorMod(email.trim().toLowerCase(Locale.ROOT).hashCode(), NOTICE_BUCKETS);
+    }
 
+    @PrePersist
+    @PreUpdate
+    void assignNoticeBucket() {
+        noticeBucket = noticeBucketOf(customerEmail);
+    }
 }
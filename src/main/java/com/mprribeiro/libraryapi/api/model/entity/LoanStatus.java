@@ -0,0 +1,5 @@
+package com.mprribeiro.libraryapi.api.model.entity;
+
+public enum LoanStatus {
+    OPEN, RETURNED
+}
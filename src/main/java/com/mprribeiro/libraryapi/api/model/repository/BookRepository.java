@@ -1,12 +1,46 @@
 package com.mprribeiro.libraryapi.api.model.repository;
 
+import com.mprribeiro.libraryapi.api.dto.TermCountDTO;
 import com.mprribeiro.libraryapi.api.model.entity.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
-    boolean existsByIsbn(String isbn);
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
+    boolean existsByIsbnKey(long isbnKey);
 
-    Optional<Book> findByIsbn(String isbn);
+    Optional<Book> findByIsbnKey(long isbnKey);
+
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select coalesce(max(b.id), 0) from Book b")
+    long findMaxId();
+
+    @Query("select b.author from Book b where b.id = :id")
+    String findAuthorById(@Param("id") Long id);
+
+    @Query("select b.available from Book b where b.id = :id")
+    Integer findAvailable(@Param("id") long id);
+
+    @Query("select b.isbnKey from Book b where b.id > :fromId and b.id <= :toId")
+    List<Long> findIsbnKeysInRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("select new com.mprribeiro.libraryapi.api.dto.TermCountDTO(b.author, count(b)) from Book b where b.author is not null group by b.author order by count(b) desc")
+    List<TermCountDTO> countByAuthor(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update Book b set b.available = b.available - 1 where b.id = :id and b.available > 0")
+    int reserveCopy(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Book b set b.available = b.available + 1 where b.id = :id and b.available < b.copies")
+    int releaseCopy(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.mprribeiro.libraryapi.api.model.repository;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Map;
+
+public interface BookRepositoryCustom {
+
+    Slice<Book> findSlice(Example<Book> example, Pageable pageable);
+
+    Slice<Map<String, Object>> findFields(Example<Book> example, FieldSelection fields, Pageable pageable);
+}
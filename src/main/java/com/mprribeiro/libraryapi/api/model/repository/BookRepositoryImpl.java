@@ -0,0 +1,56 @@
+package com.mprribeiro.libraryapi.api.model.repository;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class BookRepositoryImpl implements BookRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Book> findSlice(Example<Book> example, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = builder.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        restrict(query, root, builder, example, pageable);
+        return Slices.fetch(entityManager.createQuery(query), pageable, Function.identity());
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findFields(Example<Book> example, FieldSelection fields, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        List<Selection<?>> selections = fields.getFields().stream().map(root::get).collect(Collectors.toList());
+        query.multiselect(selections);
+        restrict(query, root, builder, example, pageable);
+        return Slices.fetch(entityManager.createQuery(query), pageable, tuple -> fields.row(tuple.toArray()));
+    }
+
+    private static void restrict(CriteriaQuery<?> query, Root<Book> root, CriteriaBuilder builder, Example<Book> example, Pageable pageable) {
+        Predicate predicate = QueryByExamplePredicateBuilder.getPredicate(root, builder, example);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+    }
+}
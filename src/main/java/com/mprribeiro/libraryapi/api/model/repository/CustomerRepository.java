@@ -0,0 +1,32 @@
+package com.mprribeiro.libraryapi.api.model.repository;
+
+import com.mprribeiro.libraryapi.api.model.entity.Customer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface CustomerRepository extends JpaRepository<Customer, String>, CustomerRepositoryCustom {
+
+    @Transactional
+    @Modifying
+    @Query("update Customer c set c.activeLoans = c.activeLoans + 1 where c.key = :key and c.activeLoans < :limit")
+    int reserveLoan(@Param("key") String key, @Param("limit") int limit);
+
+    @Query("select c.activeLoans from Customer c where c.key = :key")
+    Integer findActiveLoans(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("update Customer c set c.activeLoans = c.activeLoans - 1 where c.key = :key and c.activeLoans > 0")
+    int releaseLoan(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into customer (customer_key, name, email, active_loans) " +
+            "select k.customer_key, min(k.customer), max(k.customer_email), sum(case when k.status = 'OPEN' then 1 else 0 end) " +
+            "from (select lower(trim(regexp_replace(l.customer, '\\s+', ' '))) customer_key, l.customer, l.customer_email, l.status from loan l where l.customer is not null) k " +
+            "where not exists (select 1 from customer c where c.customer_key = k.customer_key) group by k.customer_key", nativeQuery = true)
+    int backfillFromLoans();
+}
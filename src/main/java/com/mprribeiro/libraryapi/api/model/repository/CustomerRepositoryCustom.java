@@ -0,0 +1,6 @@
+package com.mprribeiro.libraryapi.api.model.repository;
+
+public interface CustomerRepositoryCustom {
+
+    int registerWithLoan(String key, String name, String email);
+}
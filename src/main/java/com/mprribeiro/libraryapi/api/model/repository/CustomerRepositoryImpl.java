@@ -0,0 +1,52 @@
+package com.mprribeiro.libraryapi.api.model.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+@RequiredArgsConstructor
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    private static final String REGISTER_WITH_LOAN = "insert into customer (customer_key, name, email, active_loans) select ?, ?, ?, 1 "
+            + "where not exists (select 1 from customer c where c.customer_key = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int registerWithLoan(String key, String name, String email) {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try {
+                int inserted = insert(connection, key, name, email);
+                if (savepoint != null) {
+                    connection.releaseSavepoint(savepoint);
+                }
+                return inserted;
+            } catch (SQLException e) {
+                if (!(jdbcTemplate.getExceptionTranslator().translate("registerWithLoan", REGISTER_WITH_LOAN, e) instanceof DuplicateKeyException)) {
+                    throw e;
+                }
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                return 0;
+            }
+        });
+    }
+
+    private static int insert(Connection connection, String key, String name, String email) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(REGISTER_WITH_LOAN)) {
+            statement.setString(1, key);
+            statement.setString(2, name);
+            statement.setString(3, email);
+            statement.setString(4, key);
+            return statement.executeUpdate();
+        }
+    }
+}
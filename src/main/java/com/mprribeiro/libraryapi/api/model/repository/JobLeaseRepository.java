@@ -0,0 +1,33 @@
+package com.mprribeiro.libraryapi.api.model.repository;
+
+import com.mprribeiro.libraryapi.api.model.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into job_lease (name) values (:name)", nativeQuery = true)
+    int create(@Param("name") String name);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update JobLease j set j.owner = :owner, j.leaseUntil = :until where j.name = :name and j.completedAt is null and ( j.leaseUntil is null or j.leaseUntil < :now )")
+    int claim(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update JobLease j set j.leaseUntil = :until where j.name = :name and j.owner = :owner and j.completedAt is null and j.leaseUntil >= :now")
+    int renew(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update JobLease j set j.completedAt = :now where j.name = :name and j.owner = :owner")
+    int complete(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -1,27 +1,64 @@
 package com.mprribeiro.libraryapi.api.model.repository;
 
 
+import com.mprribeiro.libraryapi.api.dto.LateLoanDTO;
+import com.mprribeiro.libraryapi.api.dto.TermCountDTO;
 import com.mprribeiro.libraryapi.api.model.entity.Book;
 import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.model.entity.LoanStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface LoanRepository extends JpaRepository<Loan, Long> {
+public interface LoanRepository extends JpaRepository<Loan, Long>, LoanRepositoryCustom {
 
-    @Query(value =  "select case when ( count(l.id) > 0) then true else false end from Loan l where l.book =:book and ( l.returned is null or l.returned is false )")
-    boolean existsByBookAndNotReturned(@Param("book") Book book);
+    boolean existsByBookAndStatus(Book book, LoanStatus status);
 
-    @Query(value = "select l from Loan as l join l.book as b where b.isbn = :isbn or l.customer = :customer")
-    Page<Loan> findByBookIsbnOrCustomer(@Param("isbn") String isbn, @Param("customer") String customer, Pageable pageable);
+    @Transactional
+    @Modifying
+    @Query("update Loan l set l.status = :to, l.returnedAt = :now where l.id = :id and l.status = :from")
+    int transition(@Param("id") Long id, @Param("from") LoanStatus from, @Param("to") LoanStatus to, @Param("now") LocalDateTime now);
 
-    Page<Loan> findByBook(Book book, Pageable pageable);
+    @Query(value = "select l from Loan as l join fetch l.book as b where b.isbnKey = :isbnKey or l.customer = :customer",
+            countQuery = "select count(l) from Loan as l join l.book as b where b.isbnKey = :isbnKey or l.customer = :customer")
+    Page<Loan> findByBookIsbnKeyOrCustomer(@Param("isbnKey") long isbnKey, @Param("customer") String customer, Pageable pageable);
 
-    @Query(value = "select l from Loan l where l.loanDate <= :threeDaysAgo and ( l.returned is null or l.returned is false )")
-    List<Loan> findByLoanDateLessThanAndNotReturned(@Param("threeDaysAgo") LocalDate threeDaysAgo);
+    @Query("select l from Loan as l join fetch l.book as b where b.isbnKey = :isbnKey or l.customer = :customer")
+    Slice<Loan> findSliceByBookIsbnKeyOrCustomer(@Param("isbnKey") long isbnKey, @Param("customer") String customer, Pageable pageable);
+
+    @Query("select count(l) from Loan as l join l.book as b where b.isbnKey = :isbnKey or l.customer = :customer")
+    long countByBookIsbnKeyOrCustomer(@Param("isbnKey") long isbnKey, @Param("customer") String customer);
+
+    @Query("select l from Loan as l join fetch l.book where l.book.id = :bookId and l.loanDate >= :from " +
+            "and (l.loanDate < :beforeDate or (l.loanDate = :beforeDate and l.id < :beforeId)) order by l.loanDate desc, l.id desc")
+    Slice<Loan> findHistory(@Param("bookId") Long bookId, @Param("from") LocalDate from,
+                            @Param("beforeDate") LocalDate beforeDate, @Param("beforeId") long beforeId, Pageable pageable);
+
+    List<Loan> findByDueDateIsNull(Pageable pageable);
+
+    List<Loan> findByNoticeBucketIsNull(Pageable pageable);
+
+    List<Loan> findByStatusAndDueDateLessThanEqual(LoanStatus status, LocalDate date);
+
+    @Query("select new com.mprribeiro.libraryapi.api.dto.TermCountDTO(l.customer, count(l)) from Loan l where l.customer is not null group by l.customer order by count(l) desc")
+    List<TermCountDTO> countByCustomer(Pageable pageable);
+
+    @Query(value = "select new com.mprribeiro.libraryapi.api.dto.LateLoanDTO(l.id, l.customerEmail, b.title) from Loan l join l.book b " +
+            "where l.status = :status and l.dueDate <= :date and l.noticeBucket >= :fromBucket and l.noticeBucket < :toBucket " +
+            "and (l.lateNoticeOn is null or l.lateNoticeOn < :date) and l.id > :afterId order by l.id")
+    List<LateLoanDTO> findLateLoansInBuckets(@Param("status") LoanStatus status, @Param("date") LocalDate date, @Param("fromBucket") int fromBucket, @Param("toBucket") int toBucket, @Param("afterId") long afterId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update Loan l set l.lateNoticeOn = :date where l.id in :ids")
+    int markLateNoticeSent(@Param("ids") List<Long> ids, @Param("date") LocalDate date);
 }
@@ -0,0 +1,12 @@
+package com.mprribeiro.libraryapi.api.model.repository;
+
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Map;
+
+public interface LoanRepositoryCustom {
+
+    Slice<Map<String, Object>> findFieldsByBookIsbnKeyOrCustomer(long isbnKey, String customer, FieldSelection fields, Pageable pageable);
+}
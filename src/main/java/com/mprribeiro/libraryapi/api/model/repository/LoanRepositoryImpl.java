@@ -0,0 +1,43 @@
+package com.mprribeiro.libraryapi.api.model.repository;
+
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class LoanRepositoryImpl implements LoanRepositoryCustom {
+
+    private static final Map<String, String> PATHS = new HashMap<>();
+
+    static {
+        PATHS.put("id", "l.id");
+        PATHS.put("isbn", "b.isbn");
+        PATHS.put("customer", "l.customer");
+        PATHS.put("email", "l.customerEmail");
+        PATHS.put("book.id", "b.id");
+        PATHS.put("book.title", "b.title");
+        PATHS.put("book.author", "b.author");
+        PATHS.put("book.isbn", "b.isbn");
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Map<String, Object>> findFieldsByBookIsbnKeyOrCustomer(long isbnKey, String customer, FieldSelection fields, Pageable pageable) {
+        String select = fields.getFields().stream().map(PATHS::get).collect(Collectors.joining(", "));
+        String jpql = "select " + select + " from Loan l join l.book b where b.isbnKey = :isbnKey or l.customer = :customer";
+        TypedQuery<Tuple> query = entityManager.createQuery(QueryUtils.applySorting(jpql, pageable.getSort(), "l"), Tuple.class)
+                .setParameter("isbnKey", isbnKey)
+                .setParameter("customer", customer);
+        return Slices.fetch(query, pageable, tuple -> fields.row(tuple.toArray()));
+    }
+}
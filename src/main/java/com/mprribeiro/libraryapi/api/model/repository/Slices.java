@@ -0,0 +1,31 @@
+package com.mprribeiro.libraryapi.api.model.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+final class Slices {
+
+    private Slices() {
+    }
+
+    static <T, R> Slice<R> fetch(TypedQuery<T> query, Pageable pageable, Function<T, R> mapper) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(map(query.getResultList(), mapper), pageable, false);
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> content = query.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(map(hasNext ? content.subList(0, pageable.getPageSize()) : content, mapper), pageable, hasNext);
+    }
+
+    private static <T, R> List<R> map(List<T> content, Function<T, R> mapper) {
+        return content.stream().map(mapper).collect(Collectors.toList());
+    }
+}
@@ -1,24 +1,32 @@
 package com.mprribeiro.libraryapi.api.resource;
 
 import com.mprribeiro.libraryapi.api.dto.BookDTO;
+import com.mprribeiro.libraryapi.api.dto.CursorEnvelope;
 import com.mprribeiro.libraryapi.api.dto.LoanDTO;
+import com.mprribeiro.libraryapi.api.dto.PageEnvelope;
+import com.mprribeiro.libraryapi.api.jfr.MappingEvent;
 import com.mprribeiro.libraryapi.api.model.entity.Book;
 import com.mprribeiro.libraryapi.api.model.entity.Loan;
 import com.mprribeiro.libraryapi.api.service.BookService;
 import com.mprribeiro.libraryapi.api.service.LoanService;
+import com.mprribeiro.libraryapi.api.service.SuggestService;
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
+import com.mprribeiro.libraryapi.api.support.HistoryCursor;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -27,9 +35,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BookController {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final BookService service;
     private final ModelMapper modelMapper;
-    //private final LoanService loanService;
+    private final LoanService loanService;
+    private final SuggestService suggestService;
     
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -70,31 +81,50 @@ public class BookController {
     }
 
     @GetMapping()
-    public Page<BookDTO> find(BookDTO dto, Pageable pageRequest) {
+    @ApiOperation("FIND BOOKS; count=false SKIPS THE TOTAL AND RETURNS A SLICE")
+    public Slice<BookDTO> find(BookDTO dto, Pageable pageRequest, @RequestParam(defaultValue = "true") boolean count) {
+        Book filter = modelMapper.map(dto, Book.class);
+        Slice<Book> result = count ? service.find(filter, pageRequest) : service.findSlice(filter, pageRequest);
+        MappingEvent event = MappingEvent.start("GET /api/books");
+        Slice<BookDTO> page = result.map(entity -> modelMapper.map(entity, BookDTO.class));
+        event.finish(page.getNumberOfElements());
+        return page;
+    }
+
+    @GetMapping(params = "envelope=compact")
+    @ApiOperation("FIND BOOKS IN A COMPACT ENVELOPE WITH ONLY THE REQUESTED FIELDS")
+    public PageEnvelope<Map<String, Object>> findCompact(BookDTO dto, Pageable pageRequest,
+                                                         @RequestParam(required = false) List<String> fields,
+                                                         @RequestParam(defaultValue = "true") boolean count) {
         Book filter = modelMapper.map(dto, Book.class);
-        Page<Book> result = service.find(filter, pageRequest);
-        List<BookDTO> list = result.getContent().stream()
-                .map(entity -> modelMapper.map(entity, BookDTO.class))
-                .collect(Collectors.toList());
-        return new PageImpl<BookDTO>(list, pageRequest, result.getTotalElements());
+        return PageEnvelope.of(service.findFields(filter, FieldSelection.of(fields, BookDTO.FIELDS), pageRequest, count));
     }
 
+    @GetMapping("/authors/suggest")
+    @ApiOperation("SUGGEST AUTHORS BY PREFIX, MOST PROLIFIC FIRST")
+    public List<String> suggestAuthors(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        return suggestService.suggestAuthors(prefix, limit);
+    }
 
-    /*@GetMapping("/{id}/loans")
-    @ApiOperation("RETRIEVE BOOK LOANS")
-    public Page<LoanDTO> loansByBook(@PathVariable Long id, Pageable pageable) {
+    @GetMapping("/{id}/loans")
+    @ApiOperation("RETRIEVE BOOK LOAN HISTORY, NEWEST FIRST; PASS next AS after FOR THE FOLLOWING PAGE")
+    public CursorEnvelope<LoanDTO> loansByBook(@PathVariable Long id,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                               @RequestParam(required = false) String after,
+                                               @RequestParam(defaultValue = "20") int size) {
         Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        Page<Loan> result = loanService.getLoansByBook(book, pageable);
-        List<LoanDTO> list = result
-                .getContent()
-                .stream()
-                .map(loan -> {
-                    Book loanBook = loan.getBook();
-                    BookDTO bookDTO = modelMapper.map(loanBook, BookDTO.class);
-                    LoanDTO loanDTO = modelMapper.map(loan, LoanDTO.class);
-                    loanDTO.setBook(bookDTO);
-                    return loanDTO;
-                }).collect(Collectors.toList());
-        return new PageImpl<LoanDTO>(list, pageable, result.getTotalElements());
-    } */
+        HistoryCursor before = after != null ? HistoryCursor.parse(after) : HistoryCursor.upTo(to);
+        Slice<Loan> result = loanService.getLoanHistory(book, from, before, Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE)));
+        MappingEvent event = MappingEvent.start("GET /api/books/{id}/loans");
+        BookDTO bookDTO = modelMapper.map(book, BookDTO.class);
+        List<LoanDTO> loans = result.getContent().stream().map(loan -> {
+            LoanDTO loanDTO = modelMapper.map(loan, LoanDTO.class);
+            loanDTO.setBook(bookDTO);
+            return loanDTO;
+        }).collect(Collectors.toList());
+        event.finish(loans.size());
+        Loan last = result.hasNext() ? result.getContent().get(result.getNumberOfElements() - 1) : null;
+        return new CursorEnvelope<>(loans, last == null ? null : new HistoryCursor(last.getLoanDate(), last.getId()).toString());
+    }
 }
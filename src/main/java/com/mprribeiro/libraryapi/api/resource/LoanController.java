@@ -3,23 +3,26 @@ package com.mprribeiro.libraryapi.api.resource;
 import com.mprribeiro.libraryapi.api.dto.BookDTO;
 import com.mprribeiro.libraryapi.api.dto.LoanDTO;
 import com.mprribeiro.libraryapi.api.dto.LoanFilterDTO;
+import com.mprribeiro.libraryapi.api.dto.PageEnvelope;
 import com.mprribeiro.libraryapi.api.dto.ReturnedLoanDTO;
+import com.mprribeiro.libraryapi.api.jfr.MappingEvent;
 import com.mprribeiro.libraryapi.api.model.entity.Book;
 import com.mprribeiro.libraryapi.api.model.entity.Loan;
 import com.mprribeiro.libraryapi.api.service.BookService;
 import com.mprribeiro.libraryapi.api.service.LoanService;
+import com.mprribeiro.libraryapi.api.service.SuggestService;
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/loans")
@@ -29,6 +32,7 @@ public class LoanController {
     private final LoanService loanService;
     private final BookService bookService;
     private final ModelMapper modelMapper;
+    private final SuggestService suggestService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -36,7 +40,7 @@ public class LoanController {
         Book book = bookService
                 .getBookByIsbn(dto.getIsbn())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Book not found for passed isbn"));
-        Loan loan = Loan.builder().book(book).customer(dto.getCustomer()).loanDate(LocalDate.now()).build();
+        Loan loan = Loan.builder().book(book).customer(dto.getCustomer()).customerEmail(dto.getEmail()).loanDate(LocalDate.now()).build();
         loan = loanService.save(loan);
         return loan.getId();
     }
@@ -44,23 +48,36 @@ public class LoanController {
     @PatchMapping("/{id}")
     public void returnBook (@PathVariable Long id, @RequestBody ReturnedLoanDTO dto) {
         Loan loan = loanService.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        loan.setReturned(dto.getReturned());
-        loanService.update(loan);
+        if (!Boolean.TRUE.equals(dto.getReturned())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Loan can only be returned");
+        }
+        loanService.returnLoan(loan);
     }
 
     @GetMapping()
-    public Page<LoanDTO> find(LoanFilterDTO dto, Pageable pageable) {
-        Page<Loan> result = loanService.find(dto, pageable);
-        List<LoanDTO> loans = result
-                .getContent()
-                .stream()
-                .map( entity -> {
-                    Book book = entity.getBook();
-                    BookDTO bookDTO = modelMapper.map(book, BookDTO.class);
-                    LoanDTO loanDTO = modelMapper.map(entity, LoanDTO.class);
-                    loanDTO.setBook(bookDTO);
-                    return loanDTO;
-                }).collect(Collectors.toList());
-        return new PageImpl<LoanDTO>(loans, pageable, result.getTotalElements());
+    public Slice<LoanDTO> find(LoanFilterDTO dto, Pageable pageable, @RequestParam(defaultValue = "true") boolean count) {
+        Slice<Loan> result = count ? loanService.find(dto, pageable) : loanService.findSlice(dto, pageable);
+        MappingEvent event = MappingEvent.start("GET /api/loans");
+        Slice<LoanDTO> loans = result.map(entity -> {
+            Book book = entity.getBook();
+            BookDTO bookDTO = modelMapper.map(book, BookDTO.class);
+            LoanDTO loanDTO = modelMapper.map(entity, LoanDTO.class);
+            loanDTO.setBook(bookDTO);
+            return loanDTO;
+        });
+        event.finish(loans.getNumberOfElements());
+        return loans;
+    }
+
+    @GetMapping(params = "envelope=compact")
+    public PageEnvelope<Map<String, Object>> findCompact(LoanFilterDTO dto, Pageable pageable,
+                                                         @RequestParam(required = false) List<String> fields,
+                                                         @RequestParam(defaultValue = "true") boolean count) {
+        return PageEnvelope.of(loanService.findFields(dto, FieldSelection.of(fields, LoanDTO.FIELDS), pageable, count));
+    }
+
+    @GetMapping("/customers/suggest")
+    public List<String> suggestCustomers(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        return suggestService.suggestCustomers(prefix, limit);
     }
 }
@@ -1,9 +1,12 @@
 package com.mprribeiro.libraryapi.api.service;
 
 import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Map;
 import java.util.Optional;
 
 public interface BookService {
@@ -18,5 +21,9 @@ public interface BookService {
 
     Page<Book> find(Book filter, Pageable pageRequest);
 
+    Slice<Book> findSlice(Book filter, Pageable pageRequest);
+
+    Slice<Map<String, Object>> findFields(Book filter, FieldSelection fields, Pageable pageRequest, boolean count);
+
     Optional<Book> getBookByIsbn(String isbn);
 }
@@ -0,0 +1,14 @@
+package com.mprribeiro.libraryapi.api.service;
+
+import java.time.Duration;
+
+public interface JobLeaseService {
+
+    boolean tryClaim(String name, Duration ttl, boolean create);
+
+    boolean renew(String name, Duration ttl);
+
+    void complete(String name);
+
+    String getOwner();
+}
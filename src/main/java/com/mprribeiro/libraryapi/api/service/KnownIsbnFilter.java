@@ -0,0 +1,87 @@
+package com.mprribeiro.libraryapi.api.service;
+
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.support.ScalableBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+
+@Slf4j
+@Component
+public class KnownIsbnFilter {
+
+    private final BookRepository repository;
+    private final ScalableBloomFilter filter;
+    private final int batchSize;
+    private final Counter skipped;
+    private final Counter checked;
+    private final Counter falsePositives;
+
+    private volatile boolean ready;
+
+    public KnownIsbnFilter(BookRepository repository,
+                           MeterRegistry meterRegistry,
+                           @Value("${application.isbn-filter.initial-capacity:100000}") long initialCapacity,
+                           @Value("${application.isbn-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${application.isbn-filter.max-bytes:67108864}") long maxBytes,
+                           @Value("${application.isbn-filter.batch-size:10000}") int batchSize) {
+        this.repository = repository;
+        this.filter = new ScalableBloomFilter(initialCapacity, falsePositiveRate, maxBytes);
+        this.batchSize = batchSize;
+        this.skipped = meterRegistry.counter("isbn_filter.queries", "outcome", "skipped");
+        this.checked = meterRegistry.counter("isbn_filter.queries", "outcome", "checked");
+        this.falsePositives = meterRegistry.counter("isbn_filter.false_positives");
+        Gauge.builder("isbn_filter.bytes", filter, ScalableBloomFilter::bytes).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Thread loader = new Thread(this::rebuild, "isbn-filter-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        long maxId = repository.findMaxId();
+        long keys = 0;
+        for (long fromId = 0; fromId < maxId; fromId += batchSize) {
+            for (long isbnKey : repository.findIsbnKeysInRange(fromId, fromId + batchSize)) {
+                filter.add(isbnKey);
+                keys++;
+            }
+        }
+        ready = true;
+        log.info("Loaded {} isbns into the filter ({} bytes, {} layers) in {} ms",
+                keys, filter.bytes(), filter.layers(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public boolean isRegistered(long isbnKey, LongPredicate database) {
+        if (ready && !filter.mightContain(isbnKey)) {
+            skipped.increment();
+            return false;
+        }
+        checked.increment();
+        boolean exists = database.test(isbnKey);
+        if (ready && !exists) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    public void add(long isbnKey) {
+        filter.add(isbnKey);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+}
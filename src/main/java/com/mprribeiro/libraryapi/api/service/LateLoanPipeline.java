@@ -0,0 +1,165 @@
+package com.mprribeiro.libraryapi.api.service;
+
+import com.mprribeiro.libraryapi.api.dto.LateLoanDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class LateLoanPipeline implements DisposableBean {
+
+    private final LoanService loanService;
+    private final EmailService emailService;
+    private final ForkJoinPool pool;
+    private final ExecutorService mailExecutor;
+    private final int chunkSize;
+    private final Timer jobTimer;
+    private final Timer shardTimer;
+    private final Counter noticesSent;
+    private final Counter noticesFailed;
+
+    @Value("${application.mail.lateLoans.message}")
+    private String message;
+
+    public LateLoanPipeline(LoanService loanService,
+                            EmailService emailService,
+                            MeterRegistry meterRegistry,
+                            @Value("${application.late-loans.parallelism:0}") int parallelism,
+                            @Value("${application.late-loans.mail-concurrency:8}") int mailConcurrency,
+                            @Value("${application.late-loans.chunk-size:1000}") int chunkSize) {
+        this.loanService = loanService;
+        this.emailService = emailService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        AtomicInteger threads = new AtomicInteger();
+        this.mailExecutor = Executors.newFixedThreadPool(Math.max(1, mailConcurrency), task -> {
+            Thread thread = new Thread(task, "late-loans-mail-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.chunkSize = chunkSize;
+        this.jobTimer = meterRegistry.timer("late_loans.job.duration");
+        this.shardTimer = meterRegistry.timer("late_loans.shard.duration");
+        this.noticesSent = meterRegistry.counter("late_loans.notices", "outcome", "sent");
+        this.noticesFailed = meterRegistry.counter("late_loans.notices", "outcome", "failed");
+    }
+
+    public void execute(List<Integer> shards, IntConsumer task) {
+        jobTimer.record(() -> {
+            List<ForkJoinTask<?>> tasks = shards.stream()
+                    .map(shard -> pool.submit(() -> task.accept(shard)))
+                    .collect(Collectors.toList());
+            for (ForkJoinTask<?> shardTask : tasks) {
+                try {
+                    shardTask.join();
+                } catch (RuntimeException e) {
+                    log.warn("Late loan shard failed", e);
+                }
+            }
+        });
+    }
+
+    public int process(int shard, int shards) {
+        return process(shard, shards, () -> true);
+    }
+
+    public int process(int shard, int shards, BooleanSupplier heartbeat) {
+        return shardTimer.record(() -> pool.submit(() -> processShard(shard, shards, heartbeat)).join());
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+        mailExecutor.shutdown();
+    }
+
+    private int processShard(int shard, int shards, BooleanSupplier heartbeat) {
+        Map<String, List<LateLoanDTO>> notices = new ConcurrentHashMap<>();
+        List<ForkJoinTask<?>> grouping = new ArrayList<>();
+        long afterId = 0;
+        List<LateLoanDTO> chunk;
+        do {
+            chunk = loanService.getLateLoans(shard, shards, afterId, chunkSize);
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+                List<LateLoanDTO> loans = chunk;
+                grouping.add(ForkJoinTask.adapt(() -> group(loans, notices)).fork());
+            }
+            if (!heartbeat.getAsBoolean()) {
+                throw leaseLost(shard);
+            }
+        } while (chunk.size() == chunkSize);
+        grouping.forEach(ForkJoinTask::join);
+
+        List<CompletableFuture<Boolean>> sends = notices.entrySet().stream()
+                .map(notice -> CompletableFuture.supplyAsync(() -> send(notice.getKey(), notice.getValue()), mailExecutor))
+                .collect(Collectors.toList());
+        int failed = 0;
+        for (CompletableFuture<Boolean> send : sends) {
+            if (!send.join()) {
+                failed++;
+            }
+            if (!heartbeat.getAsBoolean()) {
+                sends.forEach(pending -> pending.cancel(false));
+                throw leaseLost(shard);
+            }
+        }
+        if (failed > 0) {
+            throw new IllegalStateException(String.format("%d of %d late loan notices failed in shard %d", failed, notices.size(), shard));
+        }
+        return notices.size();
+    }
+
+    private static IllegalStateException leaseLost(int shard) {
+        return new IllegalStateException(String.format("Lease of late loan shard %d was lost, stopping the shard", shard));
+    }
+
+    private static void group(List<LateLoanDTO> loans, Map<String, List<LateLoanDTO>> notices) {
+        for (LateLoanDTO loan : loans) {
+            if (loan.getEmail() != null) {
+                notices.computeIfAbsent(loan.getEmail(), email -> Collections.synchronizedList(new ArrayList<>())).add(loan);
+            }
+        }
+    }
+
+    private boolean send(String email, List<LateLoanDTO> notice) {
+        List<LateLoanDTO> loans = new ArrayList<>(notice);
+        loans.sort(Comparator.comparing(LateLoanDTO::getId));
+        String titles = loans.stream().map(LateLoanDTO::getTitle).collect(Collectors.joining("\n"));
+        try {
+            emailService.sendMails(message + "\n" + titles, Collections.singletonList(email));
+        } catch (RuntimeException e) {
+            noticesFailed.increment();
+            log.warn("Could not send late loan notice to {}", email, e);
+            return false;
+        }
+        noticesSent.increment();
+        loanService.markLateNoticeSent(loans.stream().map(LateLoanDTO::getId).collect(Collectors.toList()), LocalDate.now());
+        return true;
+    }
+}
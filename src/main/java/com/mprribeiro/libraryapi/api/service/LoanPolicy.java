@@ -0,0 +1,55 @@
+package com.mprribeiro.libraryapi.api.service;
+
+import com.mprribeiro.libraryapi.api.config.LoanPolicyProperties;
+import com.mprribeiro.libraryapi.api.model.entity.Customer;
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class LoanPolicy {
+
+    private final LoanPolicyProperties properties;
+
+    public LocalDate dueDateFor(Loan loan) {
+        LocalDate loanDate = loan.getLoanDate() != null ? loan.getLoanDate() : LocalDate.now();
+        return loanDate.plusDays(loanDaysFor(loan));
+    }
+
+    public int loanDaysFor(Loan loan) {
+        Integer customerDays = forCustomer(properties.getCustomerDays(), loan.getCustomer());
+        if (customerDays != null) {
+            return customerDays;
+        }
+        Integer bookDays = loan.getBook() == null || loan.getBook().getIsbn() == null ? null : properties.getBookDays().get(loan.getBook().getIsbn());
+        if (bookDays != null) {
+            return bookDays;
+        }
+        return properties.getDefaultDays();
+    }
+
+    public int maxActiveLoansFor(Loan loan) {
+        Integer customerLimit = forCustomer(properties.getCustomerMaxActiveLoans(), loan.getCustomer());
+        return customerLimit != null ? customerLimit : properties.getMaxActiveLoans();
+    }
+
+    private static Integer forCustomer(Map<String, Integer> values, String customer) {
+        if (customer == null || values.isEmpty()) {
+            return null;
+        }
+        Integer value = values.get(customer);
+        if (value != null) {
+            return value;
+        }
+        String key = Customer.keyOf(customer);
+        return values.entrySet().stream()
+                .filter(entry -> key.equals(Customer.keyOf(entry.getKey())))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+}
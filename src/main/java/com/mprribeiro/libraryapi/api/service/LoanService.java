@@ -1,13 +1,19 @@
 package com.mprribeiro.libraryapi.api.service;
 
+import com.mprribeiro.libraryapi.api.dto.LateLoanDTO;
 import com.mprribeiro.libraryapi.api.dto.LoanFilterDTO;
 import com.mprribeiro.libraryapi.api.model.entity.Book;
 import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
+import com.mprribeiro.libraryapi.api.support.HistoryCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface LoanService {
@@ -18,9 +24,19 @@ public interface LoanService {
 
     Loan update(Loan loan);
 
+    Loan returnLoan(Loan loan);
+
     Page<Loan> find(LoanFilterDTO filter, Pageable pageable);
 
-    Page<Loan> getLoansByBook(Book book, Pageable pageable);
+    Slice<Loan> findSlice(LoanFilterDTO filter, Pageable pageable);
+
+    Slice<Map<String, Object>> findFields(LoanFilterDTO filter, FieldSelection fields, Pageable pageable, boolean count);
+
+    Slice<Loan> getLoanHistory(Book book, LocalDate from, HistoryCursor before, int size);
 
     List<Loan> getAllLateLoans();
+
+    List<LateLoanDTO> getLateLoans(int shard, int shards, long afterId, int limit);
+
+    void markLateNoticeSent(List<Long> ids, LocalDate date);
 }
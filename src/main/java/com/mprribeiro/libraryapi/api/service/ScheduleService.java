@@ -1,32 +1,85 @@
 package com.mprribeiro.libraryapi.api.service;
 
-import com.mprribeiro.libraryapi.api.model.entity.Loan;
-import lombok.RequiredArgsConstructor;
+import com.mprribeiro.libraryapi.api.jfr.LateLoanShardEvent;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
-@RequiredArgsConstructor
 public class ScheduleService {
 
     private static final String CRON_LATE_LOANS = "0 0 0 1/1 * ?";
+    private static final String LATE_LOANS_JOB = "late-loans";
 
-    @Value("${application.mail.lateLoans.message")
-    private String message;
+    private final LateLoanPipeline lateLoanPipeline;
+    private final JobLeaseService jobLeaseService;
+    private final int shards;
+    private final Duration leaseTtl;
 
-    private final LoanService loanService;
-    private final EmailService emailService;
+    public ScheduleService(LateLoanPipeline lateLoanPipeline,
+                           JobLeaseService jobLeaseService,
+                           @Value("${application.late-loans.shards:8}") int shards,
+                           @Value("${application.late-loans.lease-ttl-minutes:30}") long leaseTtlMinutes) {
+        this.lateLoanPipeline = lateLoanPipeline;
+        this.jobLeaseService = jobLeaseService;
+        this.shards = shards;
+        this.leaseTtl = Duration.ofMinutes(leaseTtlMinutes);
+    }
 
     @Scheduled(cron = CRON_LATE_LOANS)
     public void sendMailToLateLoans() {
-        List<Loan> loans = loanService.getAllLateLoans();
-        List<String> mailList = loans.stream().map(loan -> loan.getCustomerEmail()).collect(Collectors.toList());
+        processShards(true);
+    }
 
-        emailService.sendMails(message, mailList);
+    @Scheduled(fixedDelayString = "${application.late-loans.recovery-interval-ms:600000}",
+            initialDelayString = "${application.late-loans.recovery-interval-ms:600000}")
+    public void recoverLateLoanShards() {
+        processShards(false);
+    }
+
+    private void processShards(boolean create) {
+        String run = LATE_LOANS_JOB + "-" + LocalDate.now();
+        int first = Math.floorMod(jobLeaseService.getOwner().hashCode(), shards);
+        List<Integer> order = IntStream.range(0, shards)
+                .mapToObj(i -> (first + i) % shards)
+                .collect(Collectors.toList());
+        lateLoanPipeline.execute(order, shard -> {
+            String lease = run + "-" + shard;
+            LateLoanShardEvent event = LateLoanShardEvent.start(run, shard, shards);
+            try {
+                if (jobLeaseService.tryClaim(lease, leaseTtl, create)) {
+                    event.rows(lateLoanPipeline.process(shard, shards, heartbeat(lease)));
+                    jobLeaseService.complete(lease);
+                    event.outcome("processed");
+                } else {
+                    event.outcome("skipped");
+                }
+            } catch (RuntimeException e) {
+                event.outcome("failed");
+                throw e;
+            } finally {
+                event.finish();
+            }
+        });
+    }
 
+    private BooleanSupplier heartbeat(String lease) {
+        long interval = leaseTtl.toNanos() / 3;
+        long[] renewedAt = {System.nanoTime()};
+        return () -> {
+            long now = System.nanoTime();
+            if (now - renewedAt[0] < interval) {
+                return true;
+            }
+            renewedAt[0] = now;
+            return jobLeaseService.renew(lease, leaseTtl);
+        };
     }
 }
@@ -0,0 +1,10 @@
+package com.mprribeiro.libraryapi.api.service;
+
+import java.util.List;
+
+public interface SuggestService {
+
+    List<String> suggestAuthors(String prefix, int limit);
+
+    List<String> suggestCustomers(String prefix, int limit);
+}
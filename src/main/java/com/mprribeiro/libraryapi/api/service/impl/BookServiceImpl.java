@@ -1,38 +1,101 @@
 package com.mprribeiro.libraryapi.api.service.impl;
 
-import com.mprribeiro.libraryapi.api.exception.BusinessException;
+import com.mprribeiro.libraryapi.api.catalog.BookEvent;
+import com.mprribeiro.libraryapi.api.config.CountCacheProperties;
+import com.mprribeiro.libraryapi.api.exception.BusinessError;
+import com.mprribeiro.libraryapi.api.jfr.BookServiceEvent;
 import com.mprribeiro.libraryapi.api.model.entity.Book;
 import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
 import com.mprribeiro.libraryapi.api.service.BookService;
+import com.mprribeiro.libraryapi.api.service.KnownIsbnFilter;
+import com.mprribeiro.libraryapi.api.support.CountCache;
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
+import com.mprribeiro.libraryapi.api.support.Isbn;
+import com.mprribeiro.libraryapi.api.support.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 @Service
+@ConditionalOnProperty(name = "application.catalog.mode", havingValue = "database", matchIfMissing = true)
 public class BookServiceImpl implements BookService {
 
     private BookRepository repository;
+    private ApplicationEventPublisher eventPublisher;
+    private KnownIsbnFilter isbnFilter;
+    private SingleFlight<Long, Optional<Book>> byId;
+    private SingleFlight<Long, Optional<Book>> byIsbn;
+    private CountCache<CountKey> counts;
 
-    public BookServiceImpl(BookRepository repository) {
+    public BookServiceImpl(BookRepository repository,
+                           ApplicationEventPublisher eventPublisher,
+                           KnownIsbnFilter isbnFilter,
+                           MeterRegistry meterRegistry,
+                           CountCacheProperties countCacheProperties,
+                           @Value("${application.single-flight.max-wait-ms:500}") long maxWaitMillis) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.isbnFilter = isbnFilter;
+        this.byId = new SingleFlight<>("book.byId", meterRegistry, maxWaitMillis, BookServiceImpl::copy);
+        this.byIsbn = new SingleFlight<>("book.byIsbn", meterRegistry, maxWaitMillis, BookServiceImpl::copy);
+        if (countCacheProperties.isEnabled()) {
+            this.counts = new CountCache<>("book", meterRegistry, countCacheProperties.getTtlMs(),
+                    countCacheProperties.getApproximateThreshold(), countCacheProperties.getApproximateTtlMs(),
+                    countCacheProperties.getMaxEntries(), System::nanoTime);
+        }
     }
 
     @Override
     public Book save(Book book) {
-        if (repository.existsByIsbn(book.getIsbn())) {
-            throw new BusinessException("Isbn já cadastrado!");
-        }
+        return BookServiceEvent.timed("save", event -> {
+            long isbnKey = Isbn.toKey(book.getIsbn());
+            event.isbn(isbnKey);
+            if (isbnKey == Isbn.INVALID) {
+                event.outcome("invalid");
+                throw BusinessError.INVALID_ISBN.exception();
+            }
+            if (isbnFilter.isRegistered(isbnKey, repository::existsByIsbnKey)) {
+                event.outcome("duplicate");
+                throw BusinessError.ISBN_ALREADY_REGISTERED.exception();
+            }
+
+            book.setIsbnKey(isbnKey);
+            book.setCopies(Math.max(1, book.getCopies()));
+            book.setAvailable(book.getCopies());
+            book.setIsbn(Isbn.format(isbnKey));
 
-        return repository.save(book);
+            Book savedBook = saveUnique(book, event);
+            isbnFilter.add(isbnKey);
+            invalidateCounts(key -> key.matches(savedBook));
+            eventPublisher.publishEvent(BookEvent.saved(savedBook));
+            event.book(savedBook).outcome("created");
+            return savedBook;
+        });
     }
 
     @Override
     public Optional<Book> getById(Long id) {
-        return repository.findById(id);
+        return BookServiceEvent.timed("getById", event -> {
+            Optional<Book> book = byId.execute(id, () -> repository.findById(id));
+            event.book(book.orElse(null)).outcome(book.isPresent() ? "found" : "not_found");
+            return book;
+        });
     }
 
     @Override
@@ -40,7 +103,13 @@ public class BookServiceImpl implements BookService {
         if (book == null || book.getId() == null) {
             throw new IllegalArgumentException("Data can't be null.");
         }
-        repository.delete(book);
+        BookServiceEvent.run("delete", event -> {
+            event.book(book);
+            repository.delete(book);
+            invalidateCounts(key -> key.matches(book));
+            eventPublisher.publishEvent(BookEvent.deleted(book));
+            event.outcome("deleted");
+        });
     }
 
     @Override
@@ -48,22 +117,131 @@ public class BookServiceImpl implements BookService {
         if (book == null || book.getId() == null) {
             throw new IllegalArgumentException("Data can't be null.");
         }
-        return repository.save(book);
+        return BookServiceEvent.timed("update", event -> {
+            event.book(book);
+            String previousAuthor = repository.findAuthorById(book.getId());
+            Book updatedBook = repository.save(book);
+            invalidateCounts(key -> key.getTitle() != null || key.getAuthor() != null);
+            eventPublisher.publishEvent(BookEvent.updated(updatedBook, previousAuthor));
+            event.outcome("updated");
+            return updatedBook;
+        });
     }
 
     @Override
     public Page<Book> find(Book filter, Pageable pageRequest) {
-        Example<Book> example = Example.of(filter,
+        return BookServiceEvent.timed("find", event -> {
+            Example<Book> example = example(filter, event);
+            Page<Book> result = counts == null
+                    ? repository.findAll(example, pageRequest)
+                    : PageableExecutionUtils.getPage(repository.findSlice(example, pageRequest).getContent(), pageRequest,
+                        () -> count(filter, example));
+            event.rows(result.getNumberOfElements()).outcome("found");
+            return result;
+        });
+    }
+
+    @Override
+    public Slice<Book> findSlice(Book filter, Pageable pageRequest) {
+        return BookServiceEvent.timed("findSlice", event -> {
+            Slice<Book> result = repository.findSlice(example(filter, event), pageRequest);
+            event.rows(result.getNumberOfElements()).outcome("found");
+            return result;
+        });
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findFields(Book filter, FieldSelection fields, Pageable pageRequest, boolean count) {
+        return BookServiceEvent.timed("findFields", event -> {
+            Example<Book> example = example(filter, event);
+            Slice<Map<String, Object>> result = repository.findFields(example, fields, pageRequest);
+            if (count) {
+                result = PageableExecutionUtils.getPage(result.getContent(), pageRequest, () -> count(filter, example));
+            }
+            event.rows(result.getNumberOfElements()).outcome("found");
+            return result;
+        });
+    }
+
+    @Override
+    public Optional<Book> getBookByIsbn(String isbn) {
+        return BookServiceEvent.timed("getBookByIsbn", event -> {
+            long isbnKey = Isbn.toKey(isbn);
+            event.isbn(isbnKey);
+            if (isbnKey == Isbn.INVALID) {
+                event.outcome("invalid");
+                return Optional.empty();
+            }
+            Optional<Book> book = byIsbn.execute(isbnKey, () -> repository.findByIsbnKey(isbnKey));
+            event.book(book.orElse(null)).outcome(book.isPresent() ? "found" : "not_found");
+            return book;
+        });
+    }
+
+    private Book saveUnique(Book book, BookServiceEvent event) {
+        try {
+            return repository.save(book);
+        } catch (DataIntegrityViolationException e) {
+            event.outcome("duplicate");
+            throw BusinessError.ISBN_ALREADY_REGISTERED.exception();
+        }
+    }
+
+    private static Example<Book> example(Book filter, BookServiceEvent event) {
+        String isbn = Isbn.normalize(filter.getIsbn());
+        if (isbn != null) {
+            filter.setIsbn(isbn);
+            event.isbn(Isbn.toKey(isbn));
+        }
+        return Example.of(filter,
                 ExampleMatcher
                     .matching()
                     .withIgnoreCase()
+                    .withIgnorePaths("isbnKey", "copies", "available")
                     .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
         );
-        return repository.findAll(example, pageRequest);
     }
 
-    @Override
-    public Optional<Book> getBookByIsbn(String isbn) {
-        return repository.findByIsbn(isbn);
+    private long count(Book filter, Example<Book> example) {
+        return counts == null ? repository.count(example) : counts.get(CountKey.of(filter), () -> repository.count(example));
+    }
+
+    private void invalidateCounts(Predicate<CountKey> affected) {
+        if (counts != null) {
+            counts.invalidate(affected);
+        }
+    }
+
+    private static Optional<Book> copy(Optional<Book> book) {
+        return book.map(entity -> entity.toBuilder().loans(null).build());
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static class CountKey {
+        private final Long id;
+        private final String title;
+        private final String author;
+        private final String isbn;
+
+        static CountKey of(Book filter) {
+            return new CountKey(filter.getId(), lower(filter.getTitle()), lower(filter.getAuthor()), lower(filter.getIsbn()));
+        }
+
+        boolean matches(Book book) {
+            return (id == null || id.equals(book.getId()))
+                    && contains(book.getTitle(), title)
+                    && contains(book.getAuthor(), author)
+                    && contains(book.getIsbn(), isbn);
+        }
+
+        private static boolean contains(String value, String part) {
+            return part == null || (value != null && value.toLowerCase().contains(part));
+        }
+
+        private static String lower(String value) {
+            return value == null ? null : value.toLowerCase();
+        }
     }
 }
@@ -0,0 +1,51 @@
+package com.mprribeiro.libraryapi.api.service.impl;
+
+import com.mprribeiro.libraryapi.api.model.repository.JobLeaseRepository;
+import com.mprribeiro.libraryapi.api.service.JobLeaseService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Service
+public class JobLeaseServiceImpl implements JobLeaseService {
+
+    private final JobLeaseRepository repository;
+    private final String owner;
+
+    public JobLeaseServiceImpl(JobLeaseRepository repository, @Value("${application.node-id:${random.uuid}}") String owner) {
+        this.repository = repository;
+        this.owner = owner;
+    }
+
+    @Override
+    public boolean tryClaim(String name, Duration ttl, boolean create) {
+        if (create && !repository.existsById(name)) {
+            try {
+                repository.create(name);
+            } catch (DataIntegrityViolationException e) {
+                // another node created the lease first
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return repository.claim(name, owner, now, now.plus(ttl)) == 1;
+    }
+
+    @Override
+    public boolean renew(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        return repository.renew(name, owner, now, now.plus(ttl)) == 1;
+    }
+
+    @Override
+    public void complete(String name) {
+        repository.complete(name, owner, LocalDateTime.now());
+    }
+
+    @Override
+    public String getOwner() {
+        return owner;
+    }
+}
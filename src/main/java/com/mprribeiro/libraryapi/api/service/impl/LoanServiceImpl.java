@@ -1,37 +1,103 @@
 package com.mprribeiro.libraryapi.api.service.impl;
 
+import com.mprribeiro.libraryapi.api.config.CountCacheProperties;
+import com.mprribeiro.libraryapi.api.dto.LateLoanDTO;
 import com.mprribeiro.libraryapi.api.dto.LoanFilterDTO;
-import com.mprribeiro.libraryapi.api.exception.BusinessException;
+import com.mprribeiro.libraryapi.api.exception.BusinessError;
+import com.mprribeiro.libraryapi.api.jfr.LoanServiceEvent;
+import com.mprribeiro.libraryapi.api.journal.LoanEvent;
 import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.entity.Customer;
 import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.model.entity.LoanStatus;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.model.repository.CustomerRepository;
 import com.mprribeiro.libraryapi.api.model.repository.LoanRepository;
+import com.mprribeiro.libraryapi.api.service.LoanPolicy;
 import com.mprribeiro.libraryapi.api.service.LoanService;
+import com.mprribeiro.libraryapi.api.support.CountCache;
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
+import com.mprribeiro.libraryapi.api.support.HistoryCursor;
+import com.mprribeiro.libraryapi.api.support.Isbn;
+import com.mprribeiro.libraryapi.api.support.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 public class LoanServiceImpl implements LoanService {
 
     private final LoanRepository repository;
+    private final BookRepository bookRepository;
+    private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoanPolicy loanPolicy;
+    private final SingleFlight<Long, Optional<Loan>> byId;
+    private final CountCache<CountKey> counts;
+    private final TransactionTemplate transactionTemplate;
+
+    public LoanServiceImpl(LoanRepository repository,
+                           BookRepository bookRepository,
+                           CustomerRepository customerRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           LoanPolicy loanPolicy,
+                           MeterRegistry meterRegistry,
+                           CountCacheProperties countCacheProperties,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${application.single-flight.max-wait-ms:500}") long maxWaitMillis) {
+        this.repository = repository;
+        this.bookRepository = bookRepository;
+        this.customerRepository = customerRepository;
+        this.eventPublisher = eventPublisher;
+        this.loanPolicy = loanPolicy;
+        this.transactionTemplate = transactionTemplate;
+        this.byId = new SingleFlight<>("loan.byId", meterRegistry, maxWaitMillis, LoanServiceImpl::copy);
+        this.counts = !countCacheProperties.isEnabled() ? null
+                : new CountCache<>("loan", meterRegistry, countCacheProperties.getTtlMs(),
+                        countCacheProperties.getApproximateThreshold(), countCacheProperties.getApproximateTtlMs(),
+                        countCacheProperties.getMaxEntries(), System::nanoTime);
+    }
 
     @Override
     public Loan save(Loan loan) {
-        if (repository.existsByBookAndNotReturned(loan.getBook())) {
-            throw new BusinessException("Livro já emprestado!");
-        }
-        return repository.save(loan);
+        return LoanServiceEvent.timed("save", event -> {
+            event.book(loan.getBook());
+            if (loan.getDueDate() == null) {
+                loan.setDueDate(loanPolicy.dueDateFor(loan));
+            }
+            Loan savedLoan = checkout(loan, event);
+            if (counts != null) {
+                counts.invalidate(key -> key.matches(savedLoan));
+            }
+            event.loan(savedLoan).outcome("created");
+            return savedLoan;
+        });
     }
 
     @Override
     public Optional<Loan> getById(Long id) {
-        return repository.findById(id);
+        return LoanServiceEvent.timed("getById", event -> {
+            Optional<Loan> loan = byId.execute(id, () -> repository.findById(id));
+            event.loan(loan.orElse(null)).outcome(loan.isPresent() ? "found" : "not_found");
+            return loan;
+        });
     }
 
     @Override
@@ -39,20 +105,180 @@ public class LoanServiceImpl implements LoanService {
         return repository.save(loan);
     }
 
+    @Override
+    @Transactional
+    public Loan returnLoan(Loan loan) {
+        return LoanServiceEvent.timed("returnLoan", event -> {
+            event.loan(loan);
+            LocalDateTime now = LocalDateTime.now();
+            if (loan.getStatus() != LoanStatus.OPEN
+                    || repository.transition(loan.getId(), LoanStatus.OPEN, LoanStatus.RETURNED, now) == 0) {
+                event.outcome("already_returned");
+                throw BusinessError.LOAN_ALREADY_RETURNED.exception();
+            }
+            bookRepository.releaseCopy(loan.getBook().getId());
+            if (loan.getCustomer() != null) {
+                customerRepository.releaseLoan(Customer.keyOf(loan.getCustomer()));
+            }
+            loan.setStatus(LoanStatus.RETURNED);
+            loan.setReturnedAt(now);
+            eventPublisher.publishEvent(LoanEvent.returned(loan));
+            event.outcome("returned");
+            return loan;
+        });
+    }
+
     @Override
     public Page<Loan> find(LoanFilterDTO filter, Pageable pageable) {
-        return repository.findByBookIsbnOrCustomer(filter.getIsbn(), filter.getCustomer(), pageable);
+        return LoanServiceEvent.timed("find", event -> {
+            long isbnKey = Isbn.toKey(filter.getIsbn());
+            String customer = filter.getCustomer();
+            Page<Loan> result = counts == null
+                    ? repository.findByBookIsbnKeyOrCustomer(isbnKey, customer, pageable)
+                    : PageableExecutionUtils.getPage(repository.findSliceByBookIsbnKeyOrCustomer(isbnKey, customer, pageable).getContent(), pageable,
+                        () -> count(isbnKey, customer));
+            event.isbn(isbnKey).rows(result.getNumberOfElements()).outcome("found");
+            return result;
+        });
+    }
+
+    @Override
+    public Slice<Loan> findSlice(LoanFilterDTO filter, Pageable pageable) {
+        return LoanServiceEvent.timed("findSlice", event -> {
+            long isbnKey = Isbn.toKey(filter.getIsbn());
+            Slice<Loan> result = repository.findSliceByBookIsbnKeyOrCustomer(isbnKey, filter.getCustomer(), pageable);
+            event.isbn(isbnKey).rows(result.getNumberOfElements()).outcome("found");
+            return result;
+        });
     }
 
     @Override
-    public Page<Loan> getLoansByBook(Book book, Pageable pageable) {
-        return repository.findByBook(book, pageable);
+    public Slice<Map<String, Object>> findFields(LoanFilterDTO filter, FieldSelection fields, Pageable pageable, boolean count) {
+        return LoanServiceEvent.timed("findFields", event -> {
+            long isbnKey = Isbn.toKey(filter.getIsbn());
+            String customer = filter.getCustomer();
+            Slice<Map<String, Object>> result = repository.findFieldsByBookIsbnKeyOrCustomer(isbnKey, customer, fields, pageable);
+            if (count) {
+                result = PageableExecutionUtils.getPage(result.getContent(), pageable, () -> count(isbnKey, customer));
+            }
+            event.isbn(isbnKey).rows(result.getNumberOfElements()).outcome("found");
+            return result;
+        });
+    }
+
+    @Override
+    public Slice<Loan> getLoanHistory(Book book, LocalDate from, HistoryCursor before, int size) {
+        return LoanServiceEvent.timed("getLoanHistory", event -> {
+            event.book(book);
+            Slice<Loan> result = repository.findHistory(book.getId(), from == null ? HistoryCursor.MIN_DATE : from,
+                    before.getDate(), before.getId(), PageRequest.of(0, size));
+            event.rows(result.getNumberOfElements()).outcome("found");
+            return result;
+        });
     }
 
     @Override
     public List<Loan> getAllLateLoans() {
-        final Integer loanDays = 4;
-        LocalDate threeDaysAgo = LocalDate.now().minusDays(loanDays);
-        return repository.findByLoanDateLessThanAndNotReturned(threeDaysAgo);
+        return LoanServiceEvent.timed("getAllLateLoans", event -> {
+            List<Loan> loans = repository.findByStatusAndDueDateLessThanEqual(LoanStatus.OPEN, LocalDate.now());
+            event.rows(loans.size()).outcome("found");
+            return loans;
+        });
+    }
+
+    @Override
+    public List<LateLoanDTO> getLateLoans(int shard, int shards, long afterId, int limit) {
+        return LoanServiceEvent.timed("getLateLoans", event -> {
+            List<LateLoanDTO> loans = repository.findLateLoansInBuckets(LoanStatus.OPEN, LocalDate.now(),
+                    shard * Loan.NOTICE_BUCKETS / shards, (shard + 1) * Loan.NOTICE_BUCKETS / shards, afterId, PageRequest.of(0, limit));
+            event.rows(loans.size()).outcome("found");
+            return loans;
+        });
+    }
+
+    @Override
+    public void markLateNoticeSent(List<Long> ids, LocalDate date) {
+        LoanServiceEvent.run("markLateNoticeSent", event -> {
+            event.rows(repository.markLateNoticeSent(ids, date)).outcome("updated");
+        });
+    }
+
+    private long count(long isbnKey, String customer) {
+        return counts == null
+                ? repository.countByBookIsbnKeyOrCustomer(isbnKey, customer)
+                : counts.get(new CountKey(isbnKey, customer), () -> repository.countByBookIsbnKeyOrCustomer(isbnKey, customer));
+    }
+
+    private Loan checkout(Loan loan, LoanServiceEvent event) {
+        Loan savedLoan = transactionTemplate.execute(status -> reserveAndSave(loan, event));
+        if (savedLoan == null) {
+            event.outcome("limit_reached");
+            throw BusinessError.LOAN_LIMIT_REACHED.exception();
+        }
+        return savedLoan;
+    }
+
+    private Loan reserveAndSave(Loan loan, LoanServiceEvent event) {
+        if (!reserveCopy(loan.getBook())) {
+            event.outcome("book_loaned");
+            throw BusinessError.BOOK_ALREADY_LOANED.exception();
+        }
+        if (!reserveLoanSlot(loan)) {
+            bookRepository.releaseCopy(loan.getBook().getId());
+            return null;
+        }
+        Loan savedLoan = repository.save(loan);
+        eventPublisher.publishEvent(LoanEvent.created(savedLoan));
+        return savedLoan;
+    }
+
+    private boolean reserveLoanSlot(Loan loan) {
+        if (loan.getCustomer() == null) {
+            return true;
+        }
+        String key = Customer.keyOf(loan.getCustomer());
+        int limit = loanPolicy.maxActiveLoansFor(loan);
+        while (customerRepository.reserveLoan(key, limit) == 0) {
+            if (limit <= 0) {
+                return false;
+            }
+            if (customerRepository.registerWithLoan(key, loan.getCustomer().trim(), loan.getCustomerEmail()) == 1) {
+                return true;
+            }
+            Integer activeLoans = customerRepository.findActiveLoans(key);
+            if (activeLoans != null && activeLoans >= limit) {
+                return false;
+            }
+            // a concurrent first checkout registered the customer, reserve against its row
+        }
+        return true;
+    }
+
+    private boolean reserveCopy(Book book) {
+        return LoanServiceEvent.timed("reserveCopy", event -> {
+            event.book(book);
+            boolean reserved = bookRepository.reserveCopy(book.getId()) == 1;
+            event.outcome(reserved ? "reserved" : "unavailable");
+            return reserved;
+        });
+    }
+
+    private static Optional<Loan> copy(Optional<Loan> loan) {
+        return loan.map(entity -> entity.toBuilder()
+                .book(entity.getBook() == null ? null : entity.getBook().toBuilder().loans(null).build())
+                .build());
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static class CountKey {
+        private final long isbnKey;
+        private final String customer;
+
+        boolean matches(Loan loan) {
+            return (loan.getBook() != null && loan.getBook().getIsbnKey() == isbnKey)
+                    || (customer != null && customer.equals(loan.getCustomer()));
+        }
     }
 }
@@ -0,0 +1,134 @@
+package com.mprribeiro.libraryapi.api.service.impl;
+
+import com.mprribeiro.libraryapi.api.catalog.BookEvent;
+import com.mprribeiro.libraryapi.api.catalog.CatalogDeltaLog;
+import com.mprribeiro.libraryapi.api.catalog.CatalogFilter;
+import com.mprribeiro.libraryapi.api.catalog.CatalogPublisher;
+import com.mprribeiro.libraryapi.api.catalog.CatalogSnapshot;
+import com.mprribeiro.libraryapi.api.catalog.CatalogView;
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.service.BookService;
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
+import com.mprribeiro.libraryapi.api.support.Isbn;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "application.catalog.mode", havingValue = "snapshot")
+public class SnapshotBookService implements BookService {
+
+    private final Path directory;
+    private final Path snapshotFile;
+    private final AtomicReference<CatalogView> view = new AtomicReference<>(CatalogView.of(CatalogSnapshot.empty()));
+
+    public SnapshotBookService(@Value("${application.catalog.dir:catalog}") String directory) {
+        this.directory = Paths.get(directory);
+        this.snapshotFile = this.directory.resolve(CatalogPublisher.SNAPSHOT_FILE);
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${application.catalog.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            CatalogView current = view.get();
+            long generation = CatalogSnapshot.generationOf(snapshotFile);
+            if (generation != current.generation()) {
+                current = CatalogView.of(CatalogSnapshot.open(snapshotFile));
+                log.info("Mapped catalog snapshot {}", current.generation());
+            }
+            List<BookEvent> events = new ArrayList<>();
+            long position = CatalogDeltaLog.read(CatalogDeltaLog.fileOf(directory, current.generation()), current.deltaPosition(), events::add);
+            view.set(current.apply(events, position));
+        } catch (IOException e) {
+            log.warn("Could not refresh catalog snapshot from {}", directory, e);
+        }
+    }
+
+    @Override
+    public Book save(Book book) {
+        throw new ResponseStatusException(HttpStatus.METHOD_NOT_ALLOWED, "Catalog snapshot is read-only");
+    }
+
+    @Override
+    public Optional<Book> getById(Long id) {
+        return id == null ? Optional.empty() : view.get().getById(id);
+    }
+
+    @Override
+    public void delete(Book book) {
+        throw new ResponseStatusException(HttpStatus.METHOD_NOT_ALLOWED, "Catalog snapshot is read-only");
+    }
+
+    @Override
+    public Book update(Book book) {
+        throw new ResponseStatusException(HttpStatus.METHOD_NOT_ALLOWED, "Catalog snapshot is read-only");
+    }
+
+    @Override
+    public Page<Book> find(Book filter, Pageable pageRequest) {
+        for (Sort.Order order : pageRequest.getSort()) {
+            if (!order.getProperty().equals("id") || order.isDescending()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Catalog snapshot can only be sorted by id ascending");
+            }
+        }
+        return view.get().find(CatalogFilter.of(filter), pageRequest);
+    }
+
+    @Override
+    public Slice<Book> findSlice(Book filter, Pageable pageRequest) {
+        Page<Book> page = find(filter, pageRequest);
+        return new SliceImpl<>(page.getContent(), pageRequest, page.hasNext());
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findFields(Book filter, FieldSelection fields, Pageable pageRequest, boolean count) {
+        Slice<Book> books = count ? find(filter, pageRequest) : findSlice(filter, pageRequest);
+        return books.map(book -> fields.row(fields.getFields().stream().map(field -> field(book, field)).toArray()));
+    }
+
+    @Override
+    public Optional<Book> getBookByIsbn(String isbn) {
+        long isbnKey = Isbn.toKey(isbn);
+        return isbnKey == Isbn.INVALID ? Optional.empty() : view.get().getByIsbnKey(isbnKey);
+    }
+
+    private static Object field(Book book, String field) {
+        switch (field) {
+            case "id":
+                return book.getId();
+            case "title":
+                return book.getTitle();
+            case "author":
+                return book.getAuthor();
+            case "isbn":
+                return book.getIsbn();
+            case "copies":
+                return book.getCopies();
+            case "available":
+                return book.getAvailable();
+            default:
+                throw new IllegalArgumentException("Unknown book field " + field);
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.mprribeiro.libraryapi.api.service.impl;
+
+import com.mprribeiro.libraryapi.api.catalog.BookEvent;
+import com.mprribeiro.libraryapi.api.dto.TermCountDTO;
+import com.mprribeiro.libraryapi.api.journal.LoanEvent;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.model.repository.LoanRepository;
+import com.mprribeiro.libraryapi.api.service.SuggestService;
+import com.mprribeiro.libraryapi.api.support.PrefixTrie;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class SuggestServiceImpl implements SuggestService, ApplicationRunner {
+
+    private final BookRepository bookRepository;
+    private final LoanRepository loanRepository;
+    private final int topK;
+    private final int maxTerms;
+    private final Suggestions authors;
+    private final Suggestions customers;
+
+    public SuggestServiceImpl(BookRepository bookRepository,
+                              LoanRepository loanRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${application.suggest.top-k:10}") int topK,
+                              @Value("${application.suggest.max-terms:100000}") int maxTerms) {
+        this.bookRepository = bookRepository;
+        this.loanRepository = loanRepository;
+        this.topK = topK;
+        this.maxTerms = maxTerms;
+        this.authors = new Suggestions(new PrefixTrie(topK, maxTerms));
+        this.customers = new Suggestions(new PrefixTrie(topK, maxTerms));
+        Gauge.builder("suggest.terms", this, service -> service.authors.get().size()).tag("trie", "authors").register(meterRegistry);
+        Gauge.builder("suggest.terms", this, service -> service.customers.get().size()).tag("trie", "customers").register(meterRegistry);
+    }
+
+    @Override
+    public List<String> suggestAuthors(String prefix, int limit) {
+        return authors.get().suggest(prefix, Math.min(limit, topK));
+    }
+
+    @Override
+    public List<String> suggestCustomers(String prefix, int limit) {
+        return customers.get().suggest(prefix, Math.min(limit, topK));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${application.suggest.rebuild-interval-ms:3600000}",
+            initialDelayString = "${application.suggest.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        authors.rebuild(() -> load(bookRepository::countByAuthor));
+        customers.rebuild(() -> load(loanRepository::countByCustomer));
+        log.info("Built suggestion tries with {} authors and {} customers in {} ms", authors.get().size(), customers.get().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void apply(BookEvent event) {
+        switch (event.getType()) {
+            case SAVED:
+                authors.update(trie -> trie.add(event.getAuthor(), 1));
+                break;
+            case UPDATED:
+                if (!Objects.equals(event.getPreviousAuthor(), event.getAuthor())) {
+                    authors.update(trie -> {
+                        trie.add(event.getPreviousAuthor(), -1);
+                        trie.add(event.getAuthor(), 1);
+                    });
+                }
+                break;
+            case DELETED:
+                authors.update(trie -> trie.add(event.getAuthor(), -1));
+                break;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void apply(LoanEvent event) {
+        if (event.getType() == LoanEvent.Type.CREATED && event.getLoan() != null) {
+            String customer = event.getLoan().getCustomer();
+            customers.update(trie -> trie.add(customer, 1));
+        }
+    }
+
+    private PrefixTrie load(Function<PageRequest, List<TermCountDTO>> counts) {
+        PrefixTrie trie = new PrefixTrie(topK, maxTerms);
+        for (TermCountDTO count : counts.apply(PageRequest.of(0, maxTerms))) {
+            trie.add(count.getTerm(), count.getCount());
+        }
+        return trie;
+    }
+
+    private static class Suggestions {
+
+        private volatile PrefixTrie trie;
+        private List<Consumer<PrefixTrie>> pending;
+
+        Suggestions(PrefixTrie trie) {
+            this.trie = trie;
+        }
+
+        PrefixTrie get() {
+            return trie;
+        }
+
+        synchronized void update(Consumer<PrefixTrie> update) {
+            update.accept(trie);
+            if (pending != null) {
+                pending.add(update);
+            }
+        }
+
+        void rebuild(Supplier<PrefixTrie> loader) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            try {
+                PrefixTrie rebuilt = loader.get();
+                synchronized (this) {
+                    pending.forEach(update -> update.accept(rebuilt));
+                    trie = rebuilt;
+                }
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+public class CountCache<K> {
+
+    private final ConcurrentMap<K, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final long ttlNanos;
+    private final long approximateThreshold;
+    private final long approximateTtlNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public CountCache(String name, MeterRegistry registry, long ttlMillis, long approximateThreshold,
+                      long approximateTtlMillis, int maxEntries, LongSupplier clock) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.approximateThreshold = approximateThreshold;
+        this.approximateTtlNanos = TimeUnit.MILLISECONDS.toNanos(approximateTtlMillis);
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.hits = registry.counter("count_cache.requests", "name", name, "result", "hit");
+        this.misses = registry.counter("count_cache.requests", "name", name, "result", "miss");
+        this.evictions = registry.counter("count_cache.invalidations", "name", name);
+    }
+
+    public long get(K key, LongSupplier counter) {
+        long now = clock.getAsLong();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.expiresAt < 0) {
+            hits.increment();
+            return entry.count;
+        }
+
+        misses.increment();
+        long generation = invalidations.get();
+        long count = counter.getAsLong();
+        boolean approximate = count >= approximateThreshold;
+        Entry computed = new Entry(count, now + (approximate ? approximateTtlNanos : ttlNanos), approximate);
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(existing -> now - existing.expiresAt >= 0);
+        }
+        if (invalidations.get() == generation && (entries.size() < maxEntries || entries.containsKey(key))) {
+            entries.put(key, computed);
+        }
+        return count;
+    }
+
+    public void invalidate(Predicate<? super K> affected) {
+        invalidations.incrementAndGet();
+        Iterator<Map.Entry<K, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry> entry = iterator.next();
+            if (!entry.getValue().approximate && affected.test(entry.getKey())) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final long count;
+        private final long expiresAt;
+        private final boolean approximate;
+
+        private Entry(long count, long expiresAt, boolean approximate) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+            this.approximate = approximate;
+        }
+    }
+}
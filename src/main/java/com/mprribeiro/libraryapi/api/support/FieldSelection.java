@@ -0,0 +1,65 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import com.mprribeiro.libraryapi.api.exception.BusinessError;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class FieldSelection {
+
+    private final List<String> fields;
+
+    private FieldSelection(List<String> fields) {
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    public static FieldSelection of(Collection<String> requested, List<String> available) {
+        if (requested == null || requested.isEmpty()) {
+            return new FieldSelection(new ArrayList<>(available));
+        }
+        for (String field : requested) {
+            if (available.stream().noneMatch(candidate -> selects(field.trim(), candidate))) {
+                throw BusinessError.INVALID_FIELD.exception();
+            }
+        }
+        List<String> fields = new ArrayList<>();
+        for (String candidate : available) {
+            if (requested.stream().anyMatch(field -> selects(field.trim(), candidate))) {
+                fields.add(candidate);
+            }
+        }
+        return new FieldSelection(fields);
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public boolean contains(String field) {
+        return fields.contains(field);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> row(Object[] values) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            int dot = field.indexOf('.');
+            if (dot < 0) {
+                row.put(field, values[i]);
+            } else {
+                ((Map<String, Object>) row.computeIfAbsent(field.substring(0, dot), key -> new LinkedHashMap<>()))
+                        .put(field.substring(dot + 1), values[i]);
+            }
+        }
+        return row;
+    }
+
+    private static boolean selects(String requested, String candidate) {
+        return candidate.equals(requested) || candidate.startsWith(requested + ".");
+    }
+}
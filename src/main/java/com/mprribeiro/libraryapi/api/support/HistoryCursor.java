@@ -0,0 +1,44 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import com.mprribeiro.libraryapi.api.exception.BusinessError;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class HistoryCursor {
+
+    public static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    public static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private static final char SEPARATOR = '_';
+
+    private final LocalDate date;
+    private final long id;
+
+    public static HistoryCursor upTo(LocalDate date) {
+        return new HistoryCursor(date == null ? MAX_DATE : date, Long.MAX_VALUE);
+    }
+
+    public static HistoryCursor parse(String token) {
+        int separator = token.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw BusinessError.INVALID_CURSOR.exception();
+        }
+        try {
+            return new HistoryCursor(LocalDate.parse(token.substring(0, separator)), Long.parseLong(token.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw BusinessError.INVALID_CURSOR.exception();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return date.toString() + SEPARATOR + id;
+    }
+}
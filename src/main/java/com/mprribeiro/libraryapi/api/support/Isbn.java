@@ -0,0 +1,84 @@
+package com.mprribeiro.libraryapi.api.support;
+
+public final class Isbn {
+
+    public static final long INVALID = -1L;
+
+    private static final long PREFIX_978 = 978_000_000_000_0L;
+    private static final long MIN_KEY = PREFIX_978;
+    private static final long MAX_KEY = 979_999_999_999_9L;
+
+    private Isbn() {
+    }
+
+    public static long toKey(String isbn) {
+        if (isbn == null) {
+            return INVALID;
+        }
+        int length = isbn.length();
+        long digits = 0;
+        int count = 0;
+        int tenth = -1;
+        for (int i = 0; i < length; i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (count == 13 || tenth >= 0) {
+                    return INVALID;
+                }
+                digits = digits * 10 + (c - '0');
+                count++;
+            } else if ((c == 'X' || c == 'x') && count == 9 && tenth < 0) {
+                tenth = 10;
+            } else if (c != '-' && c != ' ') {
+                return INVALID;
+            }
+        }
+        if (count == 10 && tenth < 0) {
+            tenth = (int) (digits % 10);
+            digits /= 10;
+            count = 9;
+        }
+        if (count == 9 && tenth >= 0) {
+            return isbn10Check(digits) == tenth ? withIsbn13Check(PREFIX_978 + digits * 10) : INVALID;
+        }
+        if (count == 13 && digits >= MIN_KEY && digits <= MAX_KEY) {
+            return withIsbn13Check(digits - digits % 10) == digits ? digits : INVALID;
+        }
+        return INVALID;
+    }
+
+    public static boolean isValid(String isbn) {
+        return toKey(isbn) != INVALID;
+    }
+
+    public static String normalize(String isbn) {
+        long key = toKey(isbn);
+        return key == INVALID ? null : format(key);
+    }
+
+    public static String format(long key) {
+        if (key < MIN_KEY || key > MAX_KEY) {
+            throw new IllegalArgumentException("Invalid isbn key: " + key);
+        }
+        return Long.toString(key);
+    }
+
+    private static int isbn10Check(long nineDigits) {
+        int sum = 0;
+        for (int weight = 2; weight <= 10; weight++) {
+            sum += (int) (nineDigits % 10) * weight;
+            nineDigits /= 10;
+        }
+        return (11 - sum % 11) % 11;
+    }
+
+    private static long withIsbn13Check(long keyWithoutCheck) {
+        long digits = keyWithoutCheck / 10;
+        int sum = 0;
+        for (int position = 12; position >= 1; position--) {
+            sum += (int) (digits % 10) * (position % 2 == 0 ? 3 : 1);
+            digits /= 10;
+        }
+        return keyWithoutCheck + (10 - sum % 10) % 10;
+    }
+}
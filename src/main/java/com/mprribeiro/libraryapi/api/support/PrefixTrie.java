@@ -0,0 +1,241 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+public class PrefixTrie {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Comparator<Term> BY_WEIGHT = Comparator.comparingLong((Term term) -> term.weight)
+            .reversed()
+            .thenComparing(term -> term.key);
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Term[] NO_TERMS = new Term[0];
+
+    private final int topK;
+    private final int maxTerms;
+    private final Node root = new Node();
+    private final Map<String, Term> terms = new HashMap<>();
+    private final TreeSet<Term> lightestFirst = new TreeSet<>(BY_WEIGHT.reversed());
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PrefixTrie(int topK, int maxTerms) {
+        this.topK = topK;
+        this.maxTerms = maxTerms;
+    }
+
+    public void add(String value, long delta) {
+        String key = normalize(value);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Term term = terms.get(key);
+            if (term == null) {
+                if (delta < 0 || !makeRoom(delta)) {
+                    return;
+                }
+                term = new Term(key, value.trim());
+                terms.put(key, term);
+            } else {
+                lightestFirst.remove(term);
+            }
+            term.weight += delta;
+            if (term.weight <= 0) {
+                remove(term);
+            } else {
+                lightestFirst.add(term);
+                refresh(term, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void ensure(String value) {
+        String key = normalize(value);
+        if (key.isEmpty()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            if (terms.containsKey(key)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        add(value, 1);
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null || limit <= 0) {
+                return Collections.emptyList();
+            }
+            Term[] top = node.top;
+            int size = Math.min(limit, top.length);
+            List<String> suggestions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                suggestions.add(top[i].display);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long weight(String value) {
+        lock.readLock().lock();
+        try {
+            Term term = terms.get(normalize(value));
+            return term == null ? 0 : term.weight;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean makeRoom(long weight) {
+        if (terms.size() < maxTerms) {
+            return true;
+        }
+        Term lightest = lightestFirst.first();
+        if (lightest.weight >= weight) {
+            return false;
+        }
+        lightestFirst.remove(lightest);
+        remove(lightest);
+        return true;
+    }
+
+    private void remove(Term term) {
+        terms.remove(term.key);
+        refresh(term, false);
+    }
+
+    private void refresh(Term term, boolean present) {
+        Node[] path = new Node[term.key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < term.key.length(); i++) {
+            Node child = path[i].child(term.key.charAt(i));
+            if (child == null) {
+                if (!present) {
+                    return;
+                }
+                child = path[i].addChild(term.key.charAt(i));
+            }
+            path[i + 1] = child;
+        }
+        path[path.length - 1].term = present ? term : null;
+        for (int i = path.length - 1; i >= 0; i--) {
+            Node node = path[i];
+            if (i > 0 && node.term == null && node.keys.length == 0) {
+                path[i - 1].removeChild(term.key.charAt(i - 1));
+            } else {
+                node.top = topOf(node);
+            }
+        }
+    }
+
+    private Term[] topOf(Node node) {
+        List<Term> candidates = new ArrayList<>();
+        if (node.term != null) {
+            candidates.add(node.term);
+        }
+        for (Node child : node.children) {
+            Collections.addAll(candidates, child.top);
+        }
+        candidates.sort(BY_WEIGHT);
+        return candidates.subList(0, Math.min(topK, candidates.size())).toArray(NO_TERMS);
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String trimmed = value.trim().toLowerCase(Locale.ROOT);
+        return MARKS.matcher(Normalizer.normalize(trimmed, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private static final class Term {
+        private final String key;
+        private final String display;
+        private long weight;
+
+        private Term(String key, String display) {
+            this.key = key;
+            this.display = display;
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private Term term;
+        private Term[] top = NO_TERMS;
+
+        private Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node addChild(char key) {
+            int index = -Arrays.binarySearch(keys, key) - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            Node child = new Node();
+            newKeys[index] = key;
+            newChildren[index] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+}
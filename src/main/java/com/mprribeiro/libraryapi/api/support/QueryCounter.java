@@ -0,0 +1,83 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+public final class QueryCounter {
+
+    private static final int MAX_RECORDED_STATEMENTS = 100;
+
+    private static final ThreadLocal<List<Scope>> SCOPES = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<List<Consumer<Scope>>> LISTENERS = ThreadLocal.withInitial(ArrayList::new);
+
+    private QueryCounter() {
+    }
+
+    public static Scope open(String name) {
+        Scope scope = new Scope(name);
+        SCOPES.get().add(scope);
+        return scope;
+    }
+
+    public static Listener listen(Consumer<Scope> listener) {
+        LISTENERS.get().add(listener);
+        return () -> LISTENERS.get().remove(listener);
+    }
+
+    static void record(String sql) {
+        List<Scope> scopes = SCOPES.get();
+        for (int i = 0; i < scopes.size(); i++) {
+            scopes.get(i).record(sql);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Listener extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final String name;
+        private final List<String> statements = new ArrayList<>();
+        private int count;
+        private boolean closed;
+
+        private Scope(String name) {
+            this.name = name;
+        }
+
+        private void record(String sql) {
+            if (count++ < MAX_RECORDED_STATEMENTS) {
+                statements.add(sql);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public List<String> getStatements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            SCOPES.get().remove(this);
+            for (Consumer<Scope> listener : new ArrayList<>(LISTENERS.get())) {
+                listener.accept(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ScalableBloomFilter {
+
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final int GROWTH_FACTOR = 2;
+
+    private final double falsePositiveRate;
+    private final long maxBytes;
+
+    private volatile Layer[] layers;
+    private volatile boolean saturated;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate, long maxBytes) {
+        if (initialCapacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid bloom filter capacity or false positive rate");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxBytes = maxBytes;
+        this.layers = new Layer[]{new Layer(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    public boolean mightContain(long key) {
+        long h1 = mix(key);
+        long h2 = mix(key ^ 0x9E3779B97F4A7C15L) | 1;
+        for (Layer layer : layers) {
+            if (layer.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void add(long key) {
+        long h1 = mix(key);
+        long h2 = mix(key ^ 0x9E3779B97F4A7C15L) | 1;
+        Layer[] current = layers;
+        Layer layer = current[current.length - 1];
+        if (layer.count.incrementAndGet() > layer.capacity && !saturated) {
+            layer = grow(current);
+        }
+        layer.put(h1, h2);
+    }
+
+    public int layers() {
+        return layers.length;
+    }
+
+    public long bytes() {
+        return Arrays.stream(layers).mapToLong(Layer::bytes).sum();
+    }
+
+    private synchronized Layer grow(Layer[] full) {
+        Layer[] current = layers;
+        Layer last = current[current.length - 1];
+        if (current != full) {
+            return last;
+        }
+        double rate = falsePositiveRate * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, current.length);
+        Layer next = new Layer(last.capacity * GROWTH_FACTOR, rate);
+        if (bytes() + next.bytes() > maxBytes) {
+            saturated = true;
+            return last;
+        }
+        Layer[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = next;
+        layers = grown;
+        return next;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static class Layer {
+
+        private final long capacity;
+        private final long bitCount;
+        private final int hashes;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        Layer(long capacity, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            long words = Math.max(1, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2) / Long.SIZE));
+            if (words > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Bloom filter layer too large");
+            }
+            this.capacity = capacity;
+            this.bitCount = words * Long.SIZE;
+            this.hashes = Math.max(1, (int) Math.round(bitCount / (double) capacity * ln2));
+            this.bits = new AtomicLongArray((int) words);
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((bits.get(word) & mask) == 0) {
+                    bits.getAndAccumulate(word, mask, (value, set) -> value | set);
+                }
+            }
+        }
+
+        long bytes() {
+            return (long) bits.length() * Long.BYTES;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitMillis;
+    private final UnaryOperator<V> copier;
+    private final Counter leaders;
+    private final Counter shared;
+    private final Counter timeouts;
+
+    public SingleFlight(String name, MeterRegistry registry, long maxWaitMillis, UnaryOperator<V> copier) {
+        this.maxWaitMillis = maxWaitMillis;
+        this.copier = copier;
+        this.leaders = counter(registry, name, "leader");
+        this.shared = counter(registry, name, "shared");
+        this.timeouts = counter(registry, name, "timeout");
+        Gauge.builder("singleflight.coalescing.ratio", this, SingleFlight::coalescingRatio)
+                .tag("name", name)
+                .register(registry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing == null) {
+            leaders.increment();
+            try {
+                V value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+
+        try {
+            V value = existing.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            shared.increment();
+            return copier.apply(value);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public double coalescingRatio() {
+        double total = leaders.count() + shared.count() + timeouts.count();
+        return total == 0 ? 0 : shared.count() / total;
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String outcome) {
+        return Counter.builder("singleflight.calls")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,246 @@
+package com.mprribeiro.libraryapi.api.catalog;
+
+import com.mprribeiro.libraryapi.api.journal.LoanEvent;
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.service.impl.SnapshotBookService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Deve gravar e ler o snapshot do catálogo mapeado em memória")
+    public void writeAndReadSnapshotTest() throws Exception {
+        // cenário
+        Path file = directory.resolve(CatalogPublisher.SNAPSHOT_FILE);
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(file, 7)) {
+            writer.add(book(1, 9780306406157L, "A Cabana", "Pâmela"));
+            writer.add(book(5, 9780804429573L, "Dom Casmurro", "Machado"));
+            writer.add(book(9, 9780000000002L, "Memórias Póstumas", "Machado"));
+            writer.commit();
+        }
+
+        // execução
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        // verificação
+        assertThat(snapshot.generation()).isEqualTo(7);
+        assertThat(CatalogSnapshot.generationOf(file)).isEqualTo(7);
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.indexOfId(5)).isEqualTo(1);
+        assertThat(snapshot.indexOfId(4)).isEqualTo(-1);
+        assertThat(snapshot.indexOfIsbn(9780000000002L)).isEqualTo(2);
+        assertThat(snapshot.book(2).getTitle()).isEqualTo("Memórias Póstumas");
+        assertThat(snapshot.book(2).getAuthor()).isEqualTo("Machado");
+        assertThat(snapshot.book(0).getIsbn()).isEqualTo("9780306406157");
+    }
+
+    @Test
+    @DisplayName("Deve sobrepor as alterações do delta log ao snapshot")
+    public void applyDeltaOverSnapshotTest() throws Exception {
+        // cenário
+        Path file = directory.resolve(CatalogPublisher.SNAPSHOT_FILE);
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(file, 1)) {
+            writer.add(book(1, 9780306406157L, "A Cabana", "Pâmela"));
+            writer.add(book(2, 9780804429573L, "Dom Casmurro", "Machado"));
+            writer.commit();
+        }
+        Path deltaFile = CatalogDeltaLog.fileOf(directory, 1);
+        try (CatalogDeltaLog delta = new CatalogDeltaLog(deltaFile)) {
+            delta.append(BookEvent.deleted(book(1, 9780306406157L, "A Cabana", "Pâmela")));
+            delta.append(BookEvent.updated(book(2, 9780804429573L, "Dom Casmurro", "Machado de Assis"), "Machado"));
+            delta.append(BookEvent.saved(book(3, 9780000000002L, "Memórias Póstumas", "Machado de Assis")));
+        }
+
+        // execução
+        List<BookEvent> events = new ArrayList<>();
+        long position = CatalogDeltaLog.read(deltaFile, 0, events::add);
+        CatalogView view = CatalogView.of(CatalogSnapshot.open(file)).apply(events, position);
+
+        // verificação
+        assertThat(events).extracting(BookEvent::getType)
+                .containsExactly(BookEvent.Type.DELETED, BookEvent.Type.UPDATED, BookEvent.Type.SAVED);
+        assertThat(CatalogDeltaLog.read(deltaFile, position, events::add)).isEqualTo(position);
+        assertThat(view.getById(1L)).isEmpty();
+        assertThat(view.getByIsbnKey(9780306406157L)).isEmpty();
+        assertThat(view.getById(2L).get().getAuthor()).isEqualTo("Machado de Assis");
+        assertThat(view.getByIsbnKey(9780000000002L).get().getId()).isEqualTo(3L);
+        Page<Book> page = view.find(CatalogFilter.of(Book.builder().author("Machado").build()), PageRequest.of(0, 10));
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(Book::getId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Deve posicionar as páginas sem filtro diretamente no snapshot com o delta aplicado")
+    public void seekUnfilteredPagesTest() throws Exception {
+        // cenário
+        Path file = directory.resolve(CatalogPublisher.SNAPSHOT_FILE);
+        List<Long> expected = new ArrayList<>();
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(file, 1)) {
+            for (long id = 10; id <= 200; id += 10) {
+                writer.add(book(id, 9780000000000L + id, "Livro " + id, "Autor"));
+                expected.add(id);
+            }
+            writer.commit();
+        }
+        List<BookEvent> events = Arrays.asList(
+                BookEvent.saved(book(5, 9780000000005L, "Livro 5", "Autor")),
+                BookEvent.saved(book(15, 9780000000015L, "Livro 15", "Autor")),
+                BookEvent.saved(book(250, 9780000000250L, "Livro 250", "Autor")),
+                BookEvent.saved(book(260, 9780000000260L, "Livro 260", "Autor")),
+                BookEvent.deleted(book(260, 9780000000260L, "Livro 260", "Autor")),
+                BookEvent.deleted(book(30, 9780000000030L, "Livro 30", "Autor")),
+                BookEvent.deleted(book(40, 9780000000040L, "Livro 40", "Autor")),
+                BookEvent.updated(book(50, 9780000000050L, "Livro 50", "Outro Autor"), "Autor"));
+        CatalogView view = CatalogView.of(CatalogSnapshot.open(file)).apply(events, 1);
+        expected.addAll(Arrays.asList(5L, 15L, 250L));
+        expected.removeAll(Arrays.asList(30L, 40L));
+        Collections.sort(expected);
+
+        for (int size = 1; size <= 7; size++) {
+            for (int pageNumber = 0; pageNumber * size <= expected.size(); pageNumber++) {
+                // execução
+                Page<Book> page = view.find(null, PageRequest.of(pageNumber, size));
+
+                // verificação
+                int from = pageNumber * size;
+                assertThat(page.getTotalElements()).isEqualTo(expected.size());
+                assertThat(page.getContent()).extracting(Book::getId)
+                        .containsExactlyElementsOf(expected.subList(from, Math.min(expected.size(), from + size)));
+            }
+        }
+        assertThat(view.getById(50L).get().getAuthor()).isEqualTo("Outro Autor");
+    }
+
+    @Test
+    @DisplayName("Deve publicar o snapshot a partir do repositório e servir as leituras pelo snapshot")
+    public void publishAndServeSnapshotTest() throws Exception {
+        // cenário
+        BookRepository repository = Mockito.mock(BookRepository.class);
+        List<Book> books = Arrays.asList(book(1, 9780306406157L, "A Cabana", "Pâmela"), book(2, 9780804429573L, "Dom Casmurro", "Machado"));
+        Mockito.when(repository.findByIdGreaterThanOrderByIdAsc(Mockito.eq(0L), Mockito.any(Pageable.class))).thenReturn(books);
+        Mockito.when(repository.findByIdGreaterThanOrderByIdAsc(Mockito.eq(2L), Mockito.any(Pageable.class))).thenReturn(Collections.emptyList());
+        CatalogPublisher publisher = new CatalogPublisher(repository, directory.toString(), 2);
+        SnapshotBookService service = new SnapshotBookService(directory.toString());
+
+        // execução
+        publisher.publish();
+        publisher.append(BookEvent.saved(book(3, 9780000000002L, "Memórias Póstumas", "Machado")));
+        service.refresh();
+        publisher.destroy();
+
+        // verificação
+        assertThat(service.getById(1L).get().getTitle()).isEqualTo("A Cabana");
+        assertThat(service.getBookByIsbn("0-8044-2957-X").get().getId()).isEqualTo(2L);
+        assertThat(service.getById(3L)).isPresent();
+        Page<Book> page = service.find(Book.builder().author("machado").build(), PageRequest.of(0, 1));
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(Book::getId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Deve servir exemplares e disponibilidade pelo snapshot e aplicar empréstimos e devoluções")
+    public void serveAvailabilityFromSnapshotTest() throws Exception {
+        // cenário
+        BookRepository repository = Mockito.mock(BookRepository.class);
+        Book book = book(1, 9780306406157L, "A Cabana", "Pâmela").toBuilder().copies(3).available(2).build();
+        Mockito.when(repository.findByIdGreaterThanOrderByIdAsc(Mockito.eq(0L), Mockito.any(Pageable.class))).thenReturn(Collections.singletonList(book));
+        Mockito.when(repository.findAvailable(1L)).thenReturn(1, 2);
+        CatalogPublisher publisher = new CatalogPublisher(repository, directory.toString(), 2);
+        SnapshotBookService service = new SnapshotBookService(directory.toString());
+        publisher.publish();
+        service.refresh();
+        Book published = service.getById(1L).get();
+
+        // execução
+        publisher.append(new LoanEvent(LoanEvent.Type.CREATED, 10, 1, 0));
+        service.refresh();
+        Book loaned = service.getById(1L).get();
+        publisher.append(BookEvent.updated(book(1, 9780306406157L, "A Cabana", "Paul Young"), "Pâmela"));
+        publisher.append(new LoanEvent(LoanEvent.Type.RETURNED, 10, 1, 0));
+        service.refresh();
+        publisher.destroy();
+
+        // verificação
+        assertThat(published.getCopies()).isEqualTo(3);
+        assertThat(published.getAvailable()).isEqualTo(2);
+        assertThat(loaned.getAvailable()).isEqualTo(1);
+        assertThat(service.getById(1L).get()).extracting(Book::getAuthor, Book::getCopies, Book::getAvailable)
+                .containsExactly("Paul Young", 3, 2);
+    }
+
+    @Test
+    @DisplayName("Deve filtrar o snapshot sem diferenciar maiúsculas e por trechos do ISBN")
+    public void filterSnapshotRecordsTest() throws Exception {
+        // cenário
+        Path file = directory.resolve(CatalogPublisher.SNAPSHOT_FILE);
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(file, 1)) {
+            writer.add(book(1, 9780306406157L, "Ética a Nicômaco", "Aristóteles"));
+            writer.add(book(2, 9780804429573L, "Dom Casmurro", "Machado de Assis"));
+            writer.add(book(3, 9780000000002L, "Memórias Póstumas", "MACHADO DE ASSIS"));
+            writer.commit();
+        }
+        CatalogView view = CatalogView.of(CatalogSnapshot.open(file));
+        Pageable pageable = PageRequest.of(0, 10);
+
+        // execução
+        Page<Book> byTitle = view.find(CatalogFilter.of(Book.builder().title("ética").build()), pageable);
+        Page<Book> byAuthor = view.find(CatalogFilter.of(Book.builder().author("machado").build()), pageable);
+        Page<Book> byIsbn = view.find(CatalogFilter.of(Book.builder().isbn("0804").build()), pageable);
+        Page<Book> byAuthorAndTitle = view.find(CatalogFilter.of(Book.builder().author("assis").title("casmurro").build()), pageable);
+
+        // verificação
+        assertThat(byTitle.getContent()).extracting(Book::getId).containsExactly(1L);
+        assertThat(byAuthor.getContent()).extracting(Book::getId).containsExactly(2L, 3L);
+        assertThat(byIsbn.getContent()).extracting(Book::getId).containsExactly(2L);
+        assertThat(byAuthorAndTitle.getContent()).extracting(Book::getId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Deve recusar ordenações não suportadas e alterações no snapshot do catálogo")
+    public void rejectUnsupportedOperationsTest() throws Exception {
+        // cenário
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(directory.resolve(CatalogPublisher.SNAPSHOT_FILE), 1)) {
+            writer.add(book(1, 9780306406157L, "A Cabana", "Pâmela"));
+            writer.commit();
+        }
+        SnapshotBookService service = new SnapshotBookService(directory.toString());
+        Book book = book(1, 9780306406157L, "A Cabana", "Pâmela");
+
+        // execução
+        Throwable sorted = Assertions.catchThrowable(() -> service.find(book, PageRequest.of(0, 10, Sort.by("title"))));
+        Throwable saved = Assertions.catchThrowable(() -> service.save(book));
+
+        // verificação
+        assertThat(sorted).isInstanceOf(ResponseStatusException.class)
+                .extracting("status").isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(saved).isInstanceOf(ResponseStatusException.class)
+                .extracting("status").isEqualTo(HttpStatus.METHOD_NOT_ALLOWED);
+        assertThat(service.find(book, PageRequest.of(0, 10, Sort.by("id"))).getTotalElements()).isEqualTo(1);
+    }
+
+    private static Book book(long id, long isbnKey, String title, String author) {
+        return Book.builder().id(id).isbnKey(isbnKey).isbn(Long.toString(isbnKey)).title(title).author(author).build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.mprribeiro.libraryapi.api.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimitFilterTest {
+
+    AtomicLong clock = new AtomicLong();
+
+    AimdLimit limit;
+
+    ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        limit = new AimdLimit(8, 2, 16, 0.5, 100, 0.25);
+        filter = new ConcurrencyLimitFilter(limit, new SimpleMeterRegistry(), clock::get);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar buscas com 503 e ainda aceitar escritas quando perto do limite")
+    public void shedSearchesBeforeWritesTest() throws Exception {
+        // cenário
+        for (int i = 0; i < 6; i++) {
+            limit.tryAcquire(true);
+        }
+
+        // execução
+        MockHttpServletResponse search = perform("GET", "/api/loans", new MockFilterChain());
+        MockHttpServletResponse write = perform("POST", "/api/loans", new MockFilterChain());
+
+        // verificação
+        assertThat(search.getStatus()).isEqualTo(503);
+        assertThat(search.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(search.getContentAsString()).contains("Service overloaded");
+        assertThat(write.getStatus()).isEqualTo(200);
+        assertThat(limit.getInFlight()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o limite multiplicativamente no máximo uma vez por janela de latência")
+    public void backOffOnSlowResponsesTest() throws Exception {
+        // execução
+        perform("GET", "/api/books", slowChain(200));
+        int afterSlow = limit.getLimit();
+        perform("GET", "/api/books", failingChain());
+        int withinWindow = limit.getLimit();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        perform("GET", "/api/books", failingChain());
+
+        // verificação
+        assertThat(afterSlow).isEqualTo(4);
+        assertThat(withinWindow).isEqualTo(4);
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve aumentar o limite aditivamente quando as respostas forem rápidas e o limite estiver em uso")
+    public void growOnFastResponsesTest() throws Exception {
+        // cenário
+        for (int i = 0; i < 4; i++) {
+            limit.tryAcquire(true);
+        }
+
+        // execução
+        perform("GET", "/api/books/1", slowChain(10));
+        perform("GET", "/api/books/1", slowChain(10));
+
+        // verificação
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Deve reportar DEGRADED enquanto estiver descartando requisições")
+    public void reportDegradedWhileSheddingTest() throws Exception {
+        // cenário
+        ConcurrencyLimitHealthIndicator health = new ConcurrencyLimitHealthIndicator(filter, 1000);
+        for (int i = 0; i < 8; i++) {
+            limit.tryAcquire(true);
+        }
+
+        // execução
+        Status healthy = health.health().getStatus();
+        perform("POST", "/api/loans", new MockFilterChain());
+        Status shedding = health.health().getStatus();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        Status recovered = health.health().getStatus();
+
+        // verificação
+        assertThat(healthy).isEqualTo(Status.UP);
+        assertThat(shedding).isEqualTo(ConcurrencyLimitHealthIndicator.DEGRADED);
+        assertThat(recovered).isEqualTo(Status.UP);
+    }
+
+    private FilterChain slowChain(long millis) {
+        return (request, response) -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private FilterChain failingChain() {
+        return (request, response) -> ((HttpServletResponse) response).setStatus(500);
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,181 @@
+package com.mprribeiro.libraryapi.api.filter;
+
+import com.mprribeiro.libraryapi.api.filter.RateLimitFilter.EndpointClass;
+import com.mprribeiro.libraryapi.api.filter.RateLimitFilter.Limit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+
+    AtomicLong clock = new AtomicLong();
+
+    RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+        limits.put(EndpointClass.READ, new Limit(10, 10));
+        limits.put(EndpointClass.SEARCH, new Limit(2, 1));
+        limits.put(EndpointClass.WRITE, new Limit(5, 1));
+        filter = new RateLimitFilter(limits, new HashSet<>(Arrays.asList("client-a", "client-b")), 3, 1000, clock::get);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar com 429 e Retry-After quando o balde de buscas esvaziar")
+    public void rejectSearchWhenBucketIsEmptyTest() throws Exception {
+        // execução
+        MockHttpServletResponse first = perform("GET", "/api/books", "client-a");
+        MockHttpServletResponse second = perform("GET", "/api/books", "client-a");
+        MockHttpServletResponse third = perform("GET", "/api/books", "client-a");
+
+        // verificação
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(third.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(third.getContentAsString()).contains("Too many requests");
+    }
+
+    @Test
+    @DisplayName("Deve manter baldes separados por cliente e por rota")
+    public void separateBucketsPerClientAndRouteTest() throws Exception {
+        // cenário
+        perform("GET", "/api/books", "client-a");
+        perform("GET", "/api/books", "client-a");
+
+        // execução
+        MockHttpServletResponse otherClient = perform("GET", "/api/books", "client-b");
+        MockHttpServletResponse read = perform("GET", "/api/books/1", "client-a");
+
+        // verificação
+        assertThat(otherClient.getStatus()).isEqualTo(200);
+        assertThat(read.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Deve usar o endereço remoto quando a chave de API não for reconhecida")
+    public void ignoreUnknownApiKeyTest() throws Exception {
+        // execução
+        MockHttpServletResponse first = perform("GET", "/api/books", "rotated-1");
+        MockHttpServletResponse second = perform("GET", "/api/books", "rotated-2");
+        MockHttpServletResponse third = perform("GET", "/api/books", "rotated-3");
+
+        // verificação
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(filter.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve descartar o balde usado há mais tempo ao atingir o limite de baldes")
+    public void evictLeastRecentlyUsedBucketTest() throws Exception {
+        // cenário
+        performLater("GET", "/api/books", "client-a");
+        performLater("GET", "/api/books", "client-a");
+        performLater("GET", "/api/loans", "client-a");
+        performLater("GET", "/api/books/1", "client-a");
+
+        // execução
+        performLater("GET", "/api/books/authors/suggest", "client-a");
+        MockHttpServletResponse evicted = performLater("GET", "/api/books", "client-a");
+
+        // verificação
+        assertThat(evicted.getStatus()).isEqualTo(200);
+        assertThat(filter.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve manter o limite de baldes com muitos clientes concorrentes")
+    public void boundBucketsUnderConcurrencyTest() throws Exception {
+        // cenário
+        int threads = 8;
+        Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+        limits.put(EndpointClass.READ, new Limit(10, 10));
+        limits.put(EndpointClass.SEARCH, new Limit(2, 1));
+        limits.put(EndpointClass.WRITE, new Limit(5, 1));
+        RateLimitFilter bounded = new RateLimitFilter(limits, new HashSet<>(), 100, 1000, System::nanoTime);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // execução
+        List<Future<?>> clients = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            int offset = thread * 1000;
+            clients.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+                    request.setRemoteAddr("10.0." + (offset + i) / 256 + "." + (offset + i) % 256);
+                    bounded.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> client : clients) {
+            client.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // verificação
+        assertThat(bounded.size()).isLessThanOrEqualTo(100 + threads);
+    }
+
+    @Test
+    @DisplayName("Deve reabastecer o balde com o passar do tempo e remover baldes ociosos")
+    public void refillAndEvictTest() throws Exception {
+        // cenário
+        perform("GET", "/api/books", "client-a");
+        perform("GET", "/api/books", "client-a");
+
+        // execução
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        MockHttpServletResponse refilled = perform("GET", "/api/books", "client-a");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        filter.evictIdleBuckets();
+
+        // verificação
+        assertThat(refilled.getStatus()).isEqualTo(200);
+        assertThat(filter.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve classificar as rotas em leitura, busca e escrita")
+    public void classifyTest() {
+        assertThat(RateLimitFilter.classify("GET", "/api/books/{id}")).isEqualTo(EndpointClass.READ);
+        assertThat(RateLimitFilter.classify("GET", "/api/loans")).isEqualTo(EndpointClass.SEARCH);
+        assertThat(RateLimitFilter.classify("GET", "/api/books/authors/suggest")).isEqualTo(EndpointClass.READ);
+        assertThat(RateLimitFilter.classify("POST", "/api/loans")).isEqualTo(EndpointClass.WRITE);
+        assertThat(RateLimitFilter.classify("PATCH", "/api/loans/{id}")).isEqualTo(EndpointClass.WRITE);
+    }
+
+    private MockHttpServletResponse performLater(String method, String uri, String client) throws Exception {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        return perform(method, uri, client);
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, String client) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader(RateLimitFilter.CLIENT_HEADER, client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,57 @@
+package com.mprribeiro.libraryapi.api.jfr;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecordingSummaryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Deve resumir os eventos da gravação por operação")
+    public void summarizeRecordingTest() throws Exception {
+        // cenário
+        Path file = directory.resolve("library-api.jfr");
+        try (Recording recording = new Recording(configuration())) {
+            recording.start();
+            for (int i = 0; i < 3; i++) {
+                BookServiceEvent.start("getBookByIsbn").book(Book.builder().id(1L).isbnKey(9780306406157L).build()).outcome("found").finish();
+            }
+            BookServiceEvent.start("getBookByIsbn").isbn(9780306406157L).outcome("not_found").finish();
+            LoanServiceEvent.start("save").finish();
+            MappingEvent.start("GET /api/loans").finish(25);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // execução
+        Map<String, RecordingSummary.OperationStats> summary = RecordingSummary.summarize(file);
+
+        // verificação
+        assertThat(summary).containsOnlyKeys("BookService getBookByIsbn", "LoanService save", "Mapping GET /api/loans");
+        assertThat(summary.get("BookService getBookByIsbn").getCount()).isEqualTo(4);
+        assertThat(summary.get("BookService getBookByIsbn").getOutcomes()).containsEntry("found", 3L).containsEntry("not_found", 1L);
+        assertThat(summary.get("LoanService save").getOutcomes()).containsOnlyKeys("error");
+        assertThat(summary.get("Mapping GET /api/loans").getRows()).isEqualTo(25);
+        assertThat(RecordingSummary.format(summary)).contains("BookService getBookByIsbn");
+    }
+
+    private Configuration configuration() throws Exception {
+        try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("/jfr/library-api.jfc"), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mprribeiro.libraryapi.api.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RingBufferAppenderTest {
+
+    LoggerContext context = new LoggerContext();
+
+    @Test
+    @DisplayName("Deve descartar os eventos mais novos quando o buffer estiver cheio")
+    public void dropNewestWhenFullTest() throws Exception {
+        // cenário
+        BlockingAppender target = new BlockingAppender();
+        RingBufferAppender appender = appender(target, RingBufferAppender.DropPolicy.DROP_NEWEST);
+
+        // execução
+        appender.doAppend(event("0"));
+        target.entered.await(5, TimeUnit.SECONDS);
+        for (int i = 1; i <= 6; i++) {
+            appender.doAppend(event(String.valueOf(i)));
+        }
+        target.release.countDown();
+        appender.stop();
+
+        // verificação
+        assertThat(appender.getDroppedCount()).isEqualTo(2);
+        assertThat(target.messages()).containsExactly("0", "1", "2", "3", "4");
+    }
+
+    @Test
+    @DisplayName("Deve descartar os eventos mais antigos quando o buffer estiver cheio")
+    public void dropOldestWhenFullTest() throws Exception {
+        // cenário
+        BlockingAppender target = new BlockingAppender();
+        RingBufferAppender appender = appender(target, RingBufferAppender.DropPolicy.DROP_OLDEST);
+
+        // execução
+        appender.doAppend(event("0"));
+        target.entered.await(5, TimeUnit.SECONDS);
+        for (int i = 1; i <= 6; i++) {
+            appender.doAppend(event(String.valueOf(i)));
+        }
+        target.release.countDown();
+        appender.stop();
+
+        // verificação
+        assertThat(appender.getDroppedCount()).isEqualTo(2);
+        assertThat(target.messages()).containsExactly("0", "3", "4", "5", "6");
+    }
+
+    @Test
+    @DisplayName("Deve serializar o evento de acesso como JSON estruturado")
+    public void encodeAccessEventTest() {
+        // cenário
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("method", "GET");
+        request.put("route", "/api/books/{id}");
+        request.put("status", 200);
+        request.put("ids", Map.of("id", "1"));
+        LoggingEvent event = new LoggingEvent("test", context.getLogger("access"), Level.INFO, "request", null, new Object[]{request});
+
+        // execução
+        String json = new String(new JsonEventEncoder().encode(event), StandardCharsets.UTF_8);
+
+        // verificação
+        assertThat(json).contains("\"logger\":\"access\"", "\"message\":\"request\"", "\"route\":\"/api/books/{id}\"",
+                "\"status\":200", "\"ids\":{\"id\":\"1\"}");
+        assertThat(json).endsWith("}\n");
+    }
+
+    private RingBufferAppender appender(BlockingAppender target, RingBufferAppender.DropPolicy policy) {
+        target.setContext(context);
+        target.start();
+        RingBufferAppender appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("test");
+        appender.setCapacity(4);
+        appender.setDropPolicy(policy);
+        appender.addAppender(target);
+        appender.start();
+        return appender;
+    }
+
+    private LoggingEvent event(String message) {
+        return new LoggingEvent("test", context.getLogger("test"), Level.INFO, message, null, null);
+    }
+
+    static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+        }
+
+        List<String> messages() {
+            return events.stream().map(ILoggingEvent::getMessage).collect(Collectors.toList());
+        }
+    }
+}
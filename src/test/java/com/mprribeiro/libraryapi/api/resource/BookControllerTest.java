@@ -4,7 +4,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mprribeiro.libraryapi.api.dto.BookDTO;
 import com.mprribeiro.libraryapi.api.exception.BusinessException;
 import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
 import com.mprribeiro.libraryapi.api.service.BookService;
+import com.mprribeiro.libraryapi.api.service.LoanService;
+import com.mprribeiro.libraryapi.api.service.SuggestService;
+import com.mprribeiro.libraryapi.api.support.HistoryCursor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +20,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -24,6 +29,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Optional;
 
@@ -45,6 +51,12 @@ public class BookControllerTest {
     @MockBean
     BookService service;
 
+    @MockBean
+    LoanService loanService;
+
+    @MockBean
+    SuggestService suggestService;
+
     private BookDTO createNewBook() {
         return BookDTO.builder().author("Marcos").title("As Aventuras").isbn("001").build();
     }
@@ -266,5 +278,81 @@ public class BookControllerTest {
 
     }
 
-    
+    @Test
+    @DisplayName("Deve filtrar livros sem calcular o total quando count=false")
+    public void findBookSliceTest() throws Exception {
+        Book book = Book.builder().id(1l).title(createNewBook().getTitle()).author(createNewBook().getAuthor()).isbn(createNewBook().getIsbn()).build();
+
+        BDDMockito.given(service.findSlice(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willReturn(new SliceImpl<Book>(Arrays.asList(book), PageRequest.of(0, 1), true));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?title=" + book.getTitle() + "&page=0&size=1&count=false"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("last").value(false))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+
+        Mockito.verify(service, Mockito.never()).find(Mockito.any(Book.class), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve listar o histórico de empréstimos do livro do mais recente ao mais antigo com cursor")
+    public void loanHistoryTest() throws Exception {
+        Book book = Book.builder().id(1l).title(createNewBook().getTitle()).author(createNewBook().getAuthor()).isbn(createNewBook().getIsbn()).build();
+        Loan newest = Loan.builder().id(7l).book(book).customer("Fulano").loanDate(LocalDate.of(2020, 3, 10)).build();
+        Loan oldest = Loan.builder().id(5l).book(book).customer("Ciclano").loanDate(LocalDate.of(2020, 3, 2)).build();
+
+        BDDMockito.given(service.getById(1l)).willReturn(Optional.of(book));
+        BDDMockito.given(loanService.getLoanHistory(book, LocalDate.of(2020, 1, 1), new HistoryCursor(LocalDate.of(2020, 3, 12), 9l), 2))
+                .willReturn(new SliceImpl<Loan>(Arrays.asList(newest, oldest), PageRequest.of(0, 2), true));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/1/loans?from=2020-01-01&after=2020-03-12_9&size=2"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("items", hasSize(2)))
+                .andExpect(jsonPath("items[0].id").value(7))
+                .andExpect(jsonPath("items[1].book.title").value(book.getTitle()))
+                .andExpect(jsonPath("next").value("2020-03-02_5"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao consultar o histórico com cursor inválido")
+    public void invalidLoanHistoryCursorTest() throws Exception {
+        Book book = Book.builder().id(1l).title(createNewBook().getTitle()).build();
+        BDDMockito.given(service.getById(1l)).willReturn(Optional.of(book));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/1/loans?after=ontem"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Cursor inválido!"));
+    }
+
+    @Test
+    @DisplayName("Deve sugerir autores pelo prefixo digitado")
+    public void suggestAuthorsTest() throws Exception {
+        BDDMockito.given(suggestService.suggestAuthors("pa", 5)).willReturn(Arrays.asList("Paulo Coelho", "Pâmela"));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/authors/suggest?prefix=pa&limit=5"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]").value("Paulo Coelho"));
+    }
 }
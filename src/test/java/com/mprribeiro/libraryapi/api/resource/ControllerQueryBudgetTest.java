@@ -0,0 +1,170 @@
+package com.mprribeiro.libraryapi.api.resource;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.entity.Customer;
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.model.repository.CustomerRepository;
+import com.mprribeiro.libraryapi.api.model.repository.LoanRepository;
+import com.mprribeiro.libraryapi.api.support.QueryBudget;
+import com.mprribeiro.libraryapi.benchmark.DatasetGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ControllerQueryBudgetTest {
+
+    static String LOAN_API = "/api/loans";
+    static String BOOK_API = "/api/books";
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @AfterEach
+    public void tearDown() {
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    @QueryBudget(2)
+    @DisplayName("Deve filtrar empréstimos sem consultas N+1 aos livros")
+    public void findLoansWithinBudgetTest() throws Exception {
+        // cenário
+        for (int i = 0; i < 5; i++) {
+            Book book = createBook(i);
+            loanRepository.save(Loan.builder().book(book).customer("Fulano").loanDate(LocalDate.now()).dueDate(LocalDate.now().plusDays(4)).build());
+        }
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(LOAN_API + "?customer=Fulano&isbn=9780306406157&page=0&size=10")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content.length()").value(5));
+    }
+
+    @Test
+    @QueryBudget(2)
+    @DisplayName("Deve retornar o envelope compacto apenas com os campos pedidos")
+    public void findLoansCompactTest() throws Exception {
+        // cenário
+        for (int i = 0; i < 3; i++) {
+            Book book = createBook(i);
+            loanRepository.save(Loan.builder().book(book).customer("Fulano").customerEmail("fulano@email.com").loanDate(LocalDate.now()).build());
+        }
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(LOAN_API + "?customer=Fulano&envelope=compact&fields=customer,book.title&page=0&size=2&sort=id")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("items.length()").value(2))
+                .andExpect(jsonPath("items[0].customer").value("Fulano"))
+                .andExpect(jsonPath("items[0].book.title").value("Livro 0"))
+                .andExpect(jsonPath("items[0].email").doesNotExist())
+                .andExpect(jsonPath("items[0].book.isbn").doesNotExist())
+                .andExpect(jsonPath("next").value(1))
+                .andExpect(jsonPath("total").value(3))
+                .andExpect(jsonPath("pageable").doesNotExist());
+    }
+
+    @Test
+    @QueryBudget(2)
+    @DisplayName("Deve paginar o histórico de empréstimos do livro sem consultas N+1")
+    public void loanHistoryWithinBudgetTest() throws Exception {
+        // cenário
+        Book book = createBook(0);
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            loans.add(loanRepository.save(Loan.builder().book(book).customer("Fulano").loanDate(LocalDate.now().minusDays(i)).build()));
+        }
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API + "/" + book.getId() + "/loans?size=2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("items.length()").value(2))
+                .andExpect(jsonPath("next").value(loans.get(1).getLoanDate() + "_" + loans.get(1).getId()));
+    }
+
+    @Test
+    @QueryBudget(1)
+    @DisplayName("Deve obter um livro com uma única consulta")
+    public void getBookWithinBudgetTest() throws Exception {
+        // cenário
+        Book book = createBook(0);
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API + "/" + book.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("isbn").value(book.getIsbn()));
+    }
+
+    @Test
+    @QueryBudget(5)
+    @DisplayName("Deve realizar o primeiro empréstimo de um cliente dentro do orçamento de consultas")
+    public void createLoanWithinBudgetTest() throws Exception {
+        // cenário
+        Book book = createBook(0);
+        String json = "{\"isbn\":\"" + book.getIsbn() + "\",\"customer\":\"Fulano\",\"email\":\"fulano@email.com\"}";
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.post(LOAN_API).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @QueryBudget(4)
+    @DisplayName("Deve realizar um empréstimo de cliente conhecido sem consultar seus empréstimos ativos")
+    public void createLoanForKnownCustomerWithinBudgetTest() throws Exception {
+        // cenário
+        Book book = createBook(0);
+        customerRepository.save(Customer.builder().key("fulano").name("Fulano").email("fulano@email.com").activeLoans(1).build());
+        String json = "{\"isbn\":\"" + book.getIsbn() + "\",\"customer\":\"Fulano\",\"email\":\"fulano@email.com\"}";
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.post(LOAN_API).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @QueryBudget(0)
+    @DisplayName("Deve sugerir autores e clientes sem consultar o banco de dados")
+    public void suggestWithoutQueriesTest() throws Exception {
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API + "/authors/suggest?prefix=au").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mvc.perform(MockMvcRequestBuilders.get(LOAN_API + "/customers/suggest?prefix=fu").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    private Book createBook(int i) {
+        long isbnKey = DatasetGenerator.isbnKey(i);
+        return bookRepository.save(Book.builder().title("Livro " + i).author("Autor").isbn(Long.toString(isbnKey)).isbnKey(isbnKey).build());
+    }
+}
@@ -0,0 +1,311 @@
+package com.mprribeiro.libraryapi.api.resource;
+
+import com.mprribeiro.libraryapi.api.exception.BusinessError;
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.model.repository.CustomerRepository;
+import com.mprribeiro.libraryapi.api.model.repository.LoanRepository;
+import com.mprribeiro.libraryapi.api.service.BookService;
+import com.mprribeiro.libraryapi.benchmark.DatasetGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(properties = {"application.rate-limit.enabled=false", "application.concurrency-limit.enabled=false"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LoanConcurrencyStressTest {
+
+    private static final int OPERATIONS = 400;
+    private static final int BENCHMARK_OPERATIONS = Integer.getInteger("stress.loans.operations", 5_000);
+    private static final int THREADS = Integer.getInteger("stress.loans.threads", 16);
+    private static final int BOOKS = Integer.getInteger("stress.loans.books", 60);
+    private static final int CUSTOMERS = Integer.getInteger("stress.loans.customers", 20);
+    private static final long SEED = Long.getLong("stress.loans.seed", 42);
+    private static final int MAX_ACTIVE_LOANS = 5;
+
+    static String LOAN_API = "/api/loans";
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final List<Book> books = new ArrayList<>();
+    private final List<Long> created = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Long, Integer> customerOf = new ConcurrentHashMap<>();
+    private final Map<Integer, Queue<Operation>> timelines = new ConcurrentHashMap<>();
+    private final Set<Long> returned = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger checkouts = new AtomicInteger();
+    private final AtomicInteger rejectedCheckouts = new AtomicInteger();
+    private final AtomicInteger returns = new AtomicInteger();
+    private final AtomicInteger rejectedReturns = new AtomicInteger();
+    private final AtomicInteger duplicateReturns = new AtomicInteger();
+    private final List<String> unexpected = Collections.synchronizedList(new ArrayList<>());
+    private final Histogram checkoutLatencies = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(30), 3);
+    private final Histogram returnLatencies = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(30), 3);
+
+    @AfterEach
+    public void tearDown() {
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve manter as invariantes dos empréstimos sob empréstimos e devoluções concorrentes")
+    public void concurrentCheckoutsAndReturnsTest() throws Exception {
+        checkInvariants(OPERATIONS);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Deve manter as invariantes dos empréstimos sob milhares de empréstimos e devoluções concorrentes")
+    public void thousandsOfConcurrentCheckoutsAndReturnsTest() throws Exception {
+        checkInvariants(BENCHMARK_OPERATIONS);
+    }
+
+    private void checkInvariants(int operations) throws Exception {
+        // cenário
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(bookService.save(Book.builder().title("Livro " + i).author("Autor " + i % 10).isbn(Long.toString(DatasetGenerator.isbnKey(i))).build()));
+        }
+
+        // execução
+        long elapsed = runConcurrently(operations);
+
+        // verificação
+        log.info(report(operations, elapsed));
+        assertThat(unexpected).isEmpty();
+        assertThat(checkouts.get()).isPositive();
+        assertThat(returns.get()).isPositive();
+        assertThat(duplicateReturns.get()).isZero();
+        assertThat(falseLimitRejections())
+                .as("recusas por limite sem o cliente ter %d empréstimos em aberto", MAX_ACTIVE_LOANS)
+                .isEmpty();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from loan", Integer.class)).isEqualTo(checkouts.get());
+        assertThat(jdbcTemplate.queryForList("select id from loan where status = 'RETURNED'", Long.class))
+                .containsExactlyInAnyOrderElementsOf(returned);
+        assertThat(jdbcTemplate.queryForList("select id_book from loan where status = 'OPEN' group by id_book having count(*) > 1", Long.class))
+                .as("livros com mais de um empréstimo em aberto")
+                .isEmpty();
+        assertThat(jdbcTemplate.queryForList("select b.id from book b where b.available <> b.copies "
+                + "- (select count(*) from loan l where l.id_book = b.id and l.status = 'OPEN')", Long.class))
+                .as("livros com exemplares disponíveis divergentes dos empréstimos em aberto")
+                .isEmpty();
+        assertThat(jdbcTemplate.queryForList("select c.customer_key from customer c where c.active_loans > ? or c.active_loans <> "
+                + "(select count(*) from loan l where lower(l.customer) = c.customer_key and l.status = 'OPEN')", String.class, MAX_ACTIVE_LOANS))
+                .as("clientes com contador de empréstimos ativos divergente da tabela")
+                .isEmpty();
+    }
+
+    private long runConcurrently(int operations) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                Random random = new Random(SEED + thread);
+                int threadOperations = operations / THREADS + (thread < operations % THREADS ? 1 : 0);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < threadOperations; i++) {
+                        if (random.nextBoolean() || created.isEmpty()) {
+                            checkout(random);
+                        } else {
+                            returnLoan(random);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - started;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void checkout(Random random) throws Exception {
+        Book book = books.get(random.nextInt(books.size()));
+        int customer = random.nextInt(CUSTOMERS);
+        String json = "{\"isbn\":\"" + book.getIsbn() + "\",\"customer\":\"Cliente " + customer + "\",\"email\":\"cliente" + customer + "@email.com\"}";
+
+        long started = System.nanoTime();
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.post(LOAN_API).contentType(MediaType.APPLICATION_JSON).content(json)).andReturn();
+        long finished = System.nanoTime();
+        checkoutLatencies.recordValue(finished - started);
+
+        int status = result.getResponse().getStatus();
+        if (status == 201) {
+            checkouts.incrementAndGet();
+            long id = Long.parseLong(result.getResponse().getContentAsString());
+            customerOf.put(id, customer);
+            created.add(id);
+            timeline(customer).add(new Operation(Operation.Kind.CHECKOUT, started, finished));
+        } else if (isRejection(result, BusinessError.BOOK_ALREADY_LOANED)) {
+            rejectedCheckouts.incrementAndGet();
+        } else if (isRejection(result, BusinessError.LOAN_LIMIT_REACHED)) {
+            rejectedCheckouts.incrementAndGet();
+            timeline(customer).add(new Operation(Operation.Kind.LIMIT_REJECTED, started, finished));
+        } else {
+            unexpected.add("POST " + json + " -> " + status + " " + result.getResponse().getContentAsString());
+        }
+    }
+
+    private void returnLoan(Random random) throws Exception {
+        Long id;
+        synchronized (created) {
+            id = created.get(random.nextInt(created.size()));
+        }
+
+        long started = System.nanoTime();
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.patch(LOAN_API + "/" + id)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"returned\":true}")).andReturn();
+        long finished = System.nanoTime();
+        returnLatencies.recordValue(finished - started);
+
+        int status = result.getResponse().getStatus();
+        if (status == 200) {
+            returns.incrementAndGet();
+            if (!returned.add(id)) {
+                duplicateReturns.incrementAndGet();
+            }
+            timeline(customerOf.get(id)).add(new Operation(Operation.Kind.RETURN, started, finished));
+        } else if (isRejection(result, BusinessError.LOAN_ALREADY_RETURNED)) {
+            rejectedReturns.incrementAndGet();
+        } else {
+            unexpected.add("PATCH " + id + " -> " + status + " " + result.getResponse().getContentAsString());
+        }
+    }
+
+    private Queue<Operation> timeline(int customer) {
+        return timelines.computeIfAbsent(customer, key -> new ConcurrentLinkedQueue<>());
+    }
+
+    private List<String> falseLimitRejections() {
+        List<String> rejections = new ArrayList<>();
+        timelines.forEach((customer, timeline) -> {
+            for (Operation rejection : timeline) {
+                if (rejection.kind == Operation.Kind.LIMIT_REJECTED && maxOpenLoansDuring(timeline, rejection) < MAX_ACTIVE_LOANS) {
+                    rejections.add("Cliente " + customer + " recusado com no máximo " + maxOpenLoansDuring(timeline, rejection) + " empréstimos em aberto");
+                }
+            }
+        });
+        return rejections;
+    }
+
+    private static int maxOpenLoansDuring(Collection<Operation> timeline, Operation rejection) {
+        int max = openLoansAt(timeline, rejection.started);
+        for (Operation operation : timeline) {
+            if (operation.kind == Operation.Kind.CHECKOUT && operation.started > rejection.started && operation.started <= rejection.finished) {
+                max = Math.max(max, openLoansAt(timeline, operation.started));
+            }
+        }
+        return max;
+    }
+
+    private static int openLoansAt(Collection<Operation> timeline, long instant) {
+        int open = 0;
+        for (Operation operation : timeline) {
+            if (operation.kind == Operation.Kind.CHECKOUT && operation.started <= instant) {
+                open++;
+            } else if (operation.kind == Operation.Kind.RETURN && operation.finished < instant) {
+                open--;
+            }
+        }
+        return open;
+    }
+
+    private static boolean isRejection(MvcResult result, BusinessError error) throws Exception {
+        return result.getResponse().getStatus() == 400
+                && result.getResponse().getContentAsString(StandardCharsets.UTF_8).equals("{\"errors\":[\"" + error.getMessage() + "\"]}");
+    }
+
+    private String report(int operations, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("loan stress threads=%d operations=%d books=%d customers=%d elapsed=%.2fs throughput=%.0f ops/s%n",
+                THREADS, operations, BOOKS, CUSTOMERS, seconds, operations / seconds));
+        report.append(line("checkout", checkouts.get(), rejectedCheckouts.get(), checkoutLatencies, seconds));
+        report.append(line("return", returns.get(), rejectedReturns.get(), returnLatencies, seconds));
+        return report.toString();
+    }
+
+    private static String line(String operation, int succeeded, int rejected, Histogram latencies, double seconds) {
+        return String.format("  %-8s ok=%d rejected=%d throughput=%.0f ops/s p50=%dus p99=%dus max=%dus%n",
+                operation, succeeded, rejected, latencies.getTotalCount() / seconds,
+                TimeUnit.NANOSECONDS.toMicros(latencies.getValueAtPercentile(50)),
+                TimeUnit.NANOSECONDS.toMicros(latencies.getValueAtPercentile(99)),
+                TimeUnit.NANOSECONDS.toMicros(latencies.getMaxValue()));
+    }
+
+    private static class Operation {
+
+        enum Kind {
+            CHECKOUT, RETURN, LIMIT_REJECTED
+        }
+
+        private final Kind kind;
+        private final long started;
+        private final long finished;
+
+        Operation(Kind kind, long started, long finished) {
+            this.kind = kind;
+            this.started = started;
+            this.finished = finished;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.mprribeiro.libraryapi.api.model.entity.Book;
 import com.mprribeiro.libraryapi.api.model.entity.Loan;
 import com.mprribeiro.libraryapi.api.service.BookService;
 import com.mprribeiro.libraryapi.api.service.LoanService;
+import com.mprribeiro.libraryapi.api.service.SuggestService;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -55,6 +56,9 @@ public class LoanControllerTest {
     @MockBean
     private LoanService loanService;
 
+    @MockBean
+    private SuggestService suggestService;
+
     @Test
     @DisplayName("Deve realizar um empréstimo")
     public void createLoanTest() throws Exception {
@@ -79,6 +83,7 @@ public class LoanControllerTest {
                 .perform(request)
                 .andExpect(MockMvcResultMatchers.status().isCreated())
                 .andExpect(MockMvcResultMatchers.content().string("1"));
+        Mockito.verify(loanService).save(Mockito.argThat(saved -> "customer@email.com".equals(saved.getCustomerEmail())));
     }
 
     @Test
@@ -149,7 +154,29 @@ public class LoanControllerTest {
                                 .content(json)
                 ).andExpect(MockMvcResultMatchers.status().isOk());
 
-        Mockito.verify(loanService, Mockito.times(1)).update(loan);
+        Mockito.verify(loanService, Mockito.times(1)).returnLoan(loan);
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao tentar devolver um empréstimo já devolvido")
+    public void returnAlreadyReturnedBookTest() throws Exception {
+
+        // cenário
+        ReturnedLoanDTO dto = ReturnedLoanDTO.builder().returned(true).build();
+        Loan loan = Loan.builder().id(1l).build();
+        BDDMockito.given(loanService.getById(Mockito.anyLong())).willReturn(Optional.of(loan));
+        BDDMockito.given(loanService.returnLoan(loan)).willThrow(new BusinessException("Empréstimo já devolvido!"));
+
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        mvc
+                .perform(
+                        MockMvcRequestBuilders.patch(LOAN_API.concat("/1"))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .content(json)
+                ).andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("errors[0]").value("Empréstimo já devolvido!"));
     }
 
     @Test
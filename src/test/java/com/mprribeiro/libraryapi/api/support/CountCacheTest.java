@@ -0,0 +1,59 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CountCacheTest {
+
+    AtomicLong clock = new AtomicLong();
+
+    CountCache<String> cache = new CountCache<>("test", new SimpleMeterRegistry(), 1000, 100, 10000, 10, clock::get);
+
+    @Test
+    @DisplayName("Deve reaproveitar o total até o TTL expirar ou uma escrita invalidar o filtro")
+    public void expireAndInvalidateExactCountsTest() {
+        // cenário
+        AtomicInteger counts = new AtomicInteger();
+
+        // execução
+        long first = cache.get("fulano", () -> counts.incrementAndGet());
+        long cached = cache.get("fulano", () -> counts.incrementAndGet());
+        cache.invalidate("ciclano"::equals);
+        long untouched = cache.get("fulano", () -> counts.incrementAndGet());
+        cache.invalidate("fulano"::equals);
+        long invalidated = cache.get("fulano", () -> counts.incrementAndGet());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        long expired = cache.get("fulano", () -> counts.incrementAndGet());
+
+        // verificação
+        assertThat(first).isEqualTo(1);
+        assertThat(cached).isEqualTo(1);
+        assertThat(untouched).isEqualTo(1);
+        assertThat(invalidated).isEqualTo(2);
+        assertThat(expired).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve manter totais acima do limiar como aproximados, sem invalidar em escritas")
+    public void keepApproximateCountsTest() {
+        // execução
+        cache.get("todos", () -> 5000);
+        cache.invalidate(key -> true);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        long approximate = cache.get("todos", () -> 5001);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        long recounted = cache.get("todos", () -> 5002);
+
+        // verificação
+        assertThat(approximate).isEqualTo(5000);
+        assertThat(recounted).isEqualTo(5002);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,41 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import com.mprribeiro.libraryapi.api.dto.LoanDTO;
+import com.mprribeiro.libraryapi.api.exception.BusinessException;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FieldSelectionTest {
+
+    @Test
+    @DisplayName("Deve selecionar os campos pedidos na ordem canônica e expandir objetos aninhados")
+    public void selectFieldsTest() {
+        // execução
+        FieldSelection selection = FieldSelection.of(Arrays.asList("book", "customer"), LoanDTO.FIELDS);
+        Map<String, Object> row = selection.row(new Object[]{"Fulano", 1L, "A Cabana", "Pâmela", "9780306406157"});
+
+        // verificação
+        assertThat(selection.getFields()).containsExactly("customer", "book.id", "book.title", "book.author", "book.isbn");
+        assertThat(row).containsOnlyKeys("customer", "book");
+        assertThat(row).extractingByKey("book").asInstanceOf(InstanceOfAssertFactories.MAP)
+                .containsEntry("title", "A Cabana").containsEntry("id", 1L);
+        assertThat(FieldSelection.of(null, LoanDTO.FIELDS).getFields()).isEqualTo(LoanDTO.FIELDS);
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio ao pedir um campo inexistente")
+    public void rejectUnknownFieldTest() {
+        // execução
+        Throwable ex = Assertions.catchThrowable(() -> FieldSelection.of(Arrays.asList("title", "password"), LoanDTO.FIELDS));
+
+        // verificação
+        assertThat(ex).isInstanceOf(BusinessException.class).hasMessage("Campo inválido!");
+    }
+}
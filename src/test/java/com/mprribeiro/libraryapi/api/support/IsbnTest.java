@@ -0,0 +1,38 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IsbnTest {
+
+    @Test
+    @DisplayName("Deve normalizar isbn-10 e isbn-13 para a mesma chave numérica")
+    public void normalizeIsbnTest() {
+        // execução
+        long isbn13 = Isbn.toKey("9780306406157");
+        long hyphenated = Isbn.toKey("978-0-306-40615-7");
+        long isbn10 = Isbn.toKey("0-306-40615-2");
+
+        // verificação
+        assertThat(isbn13).isEqualTo(9780306406157L);
+        assertThat(hyphenated).isEqualTo(isbn13);
+        assertThat(isbn10).isEqualTo(isbn13);
+        assertThat(Isbn.toKey("0-8044-2957-X")).isEqualTo(9780804429573L);
+        assertThat(Isbn.format(isbn13)).isEqualTo("9780306406157");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar isbn com dígito verificador ou formato inválido")
+    public void rejectInvalidIsbnTest() {
+        // verificação
+        assertThat(Isbn.toKey("978-0-306-40615-8")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.toKey("0-306-40615-3")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.toKey("1230306406157")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.toKey("97803064061570")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.toKey("0-306-4061X-2")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.toKey("isbn")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.toKey(null)).isEqualTo(Isbn.INVALID);
+    }
+}
@@ -0,0 +1,76 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrefixTrieTest {
+
+    @Test
+    @DisplayName("Deve sugerir os termos mais populares do prefixo, ignorando caixa e acentos")
+    public void suggestByWeightTest() {
+        // cenário
+        PrefixTrie trie = new PrefixTrie(3, 100);
+        trie.add("Pâmela", 2);
+        trie.add("Paulo Coelho", 5);
+        trie.add("Patrícia", 1);
+        trie.add("Pedro", 9);
+        trie.add("Paula", 3);
+
+        // execução
+        List<String> suggestions = trie.suggest("PA", 10);
+        List<String> accented = trie.suggest("pâm", 10);
+        List<String> all = trie.suggest("", 2);
+
+        // verificação
+        assertThat(suggestions).containsExactly("Paulo Coelho", "Paula", "Pâmela");
+        assertThat(accented).containsExactly("Pâmela");
+        assertThat(all).containsExactly("Pedro", "Paulo Coelho");
+        assertThat(trie.suggest("x", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o ranking incrementalmente e remover termos sem peso")
+    public void updateIncrementallyTest() {
+        // cenário
+        PrefixTrie trie = new PrefixTrie(2, 100);
+        trie.add("Ana", 3);
+        trie.add("Anabela", 2);
+        trie.add("André", 1);
+
+        // execução
+        trie.add("André", 5);
+        trie.add("Ana", -3);
+        trie.ensure("Anabela");
+        trie.ensure("Antônio");
+
+        // verificação
+        assertThat(trie.suggest("an", 10)).containsExactly("André", "Anabela");
+        assertThat(trie.suggest("ana", 10)).containsExactly("Anabela");
+        assertThat(trie.weight("ana")).isZero();
+        assertThat(trie.weight("anabela")).isEqualTo(2);
+        assertThat(trie.weight("antonio")).isEqualTo(1);
+        assertThat(trie.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve limitar a quantidade de termos descartando os menos populares")
+    public void boundedTermsTest() {
+        // cenário
+        PrefixTrie trie = new PrefixTrie(10, 2);
+
+        // execução
+        trie.add("Fulano", 5);
+        trie.add("Ciclano", 1);
+        trie.add("Beltrano", 3);
+        trie.add("Deltrano", 2);
+
+        // verificação
+        assertThat(trie.size()).isEqualTo(2);
+        assertThat(trie.suggest("", 10)).containsExactly("Fulano", "Beltrano");
+        assertThat(trie.suggest("c", 10)).isEmpty();
+    }
+}
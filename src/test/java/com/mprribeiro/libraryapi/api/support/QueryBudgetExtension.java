@@ -0,0 +1,46 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class QueryBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        List<QueryCounter.Scope> requests = new ArrayList<>();
+        context.getStore(NAMESPACE).put("requests", requests);
+        context.getStore(NAMESPACE).put("listener", QueryCounter.listen(requests::add));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterEach(ExtensionContext context) {
+        context.getStore(NAMESPACE).remove("listener", QueryCounter.Listener.class).close();
+        List<QueryCounter.Scope> requests = context.getStore(NAMESPACE).remove("requests", List.class);
+        int budget = budget(context);
+        List<QueryCounter.Scope> exceeded = requests.stream()
+                .filter(request -> request.getCount() > budget)
+                .collect(Collectors.toList());
+        if (!exceeded.isEmpty() && !context.getExecutionException().isPresent()) {
+            throw new AssertionError(exceeded.stream()
+                    .map(request -> String.format("%s executed %d queries (budget %d):%n  %s", request.getName(), request.getCount(), budget,
+                            String.join(System.lineSeparator() + "  ", request.getStatements())))
+                    .collect(Collectors.joining(System.lineSeparator())));
+        }
+    }
+
+    private static int budget(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), QueryBudget.class))
+                .map(QueryBudget::value)
+                .orElseThrow(() -> new IllegalStateException("Missing @QueryBudget on " + context.getDisplayName()));
+    }
+}
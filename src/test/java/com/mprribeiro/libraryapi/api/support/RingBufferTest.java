@@ -0,0 +1,86 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RingBufferTest {
+
+    @Test
+    @DisplayName("Deve entregar em ordem e recusar elementos quando cheio")
+    public void offerAndPollInOrderTest() {
+        // cenário
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+
+        // execução
+        boolean accepted = true;
+        for (int i = 0; i < 4; i++) {
+            accepted &= buffer.offer(i);
+        }
+        boolean overflow = buffer.offer(4);
+        Integer first = buffer.poll();
+        boolean reused = buffer.offer(5);
+
+        // verificação
+        assertThat(buffer.capacity()).isEqualTo(4);
+        assertThat(accepted).isTrue();
+        assertThat(overflow).isFalse();
+        assertThat(first).isEqualTo(0);
+        assertThat(reused).isTrue();
+        assertThat(buffer.poll()).isEqualTo(1);
+        assertThat(buffer.poll()).isEqualTo(2);
+        assertThat(buffer.poll()).isEqualTo(3);
+        assertThat(buffer.poll()).isEqualTo(5);
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve entregar cada elemento exatamente uma vez com vários produtores e consumidores")
+    public void concurrentProducersAndConsumersTest() throws Exception {
+        // cenário
+        RingBuffer<Integer> buffer = new RingBuffer<>(64);
+        Set<Integer> received = ConcurrentHashMap.newKeySet();
+        int producers = 4;
+        int perProducer = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers * 2);
+        CountDownLatch done = new CountDownLatch(producers * 2);
+
+        // execução
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+            executor.submit(() -> {
+                while (received.size() < producers * perProducer) {
+                    Integer value = buffer.poll();
+                    if (value != null) {
+                        assertThat(received.add(value)).isTrue();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        boolean finished = done.await(30, TimeUnit.SECONDS);
+        executor.shutdownNow();
+
+        // verificação
+        assertThat(finished).isTrue();
+        assertThat(received).hasSize(producers * perProducer);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,52 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("Deve crescer em camadas sem falsos negativos e respeitando a taxa de falsos positivos")
+    public void growWithoutFalseNegativesTest() {
+        // cenário
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01, 1 << 20);
+
+        // execução
+        for (long key = 0; key < 20_000; key++) {
+            filter.add(key * 7);
+        }
+        int falsePositives = 0;
+        for (long key = 0; key < 100_000; key++) {
+            if (filter.mightContain(key * 7 + 1)) {
+                falsePositives++;
+            }
+        }
+
+        // verificação
+        for (long key = 0; key < 20_000; key++) {
+            assertThat(filter.mightContain(key * 7)).isTrue();
+        }
+        assertThat(filter.layers()).isGreaterThan(1);
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    @DisplayName("Deve parar de crescer ao atingir o limite de memória sem gerar falsos negativos")
+    public void stopGrowingAtMemoryLimitTest() {
+        // cenário
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01, 4096);
+
+        // execução
+        for (long key = 0; key < 10_000; key++) {
+            filter.add(key);
+        }
+
+        // verificação
+        assertThat(filter.bytes()).isLessThanOrEqualTo(4096);
+        for (long key = 0; key < 10_000; key++) {
+            assertThat(filter.mightContain(key)).isTrue();
+        }
+    }
+}
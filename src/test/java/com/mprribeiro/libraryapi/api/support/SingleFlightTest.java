@@ -0,0 +1,83 @@
+package com.mprribeiro.libraryapi.api.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SingleFlightTest {
+
+    @Test
+    @DisplayName("Deve compartilhar uma única chamada entre requisições concorrentes da mesma chave")
+    public void coalesceConcurrentCallsTest() throws Exception {
+        // cenário
+        SingleFlight<Long, StringBuilder> singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry(), 5000, StringBuilder::new);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        // execução
+        List<Future<StringBuilder>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                loads.incrementAndGet();
+                await(release);
+                return new StringBuilder("book");
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        List<StringBuilder> values = new ArrayList<>();
+        for (Future<StringBuilder> result : results) {
+            values.add(result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // verificação
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(values).extracting(StringBuilder::toString).containsOnly("book");
+        assertThat(values.stream().distinct().count()).isEqualTo(callers);
+        assertThat(singleFlight.coalescingRatio()).isEqualTo((callers - 1) / (double) callers);
+    }
+
+    @Test
+    @DisplayName("Deve executar a própria chamada quando a espera exceder o limite")
+    public void fallbackAfterMaxWaitTest() throws Exception {
+        // cenário
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry(), 10, value -> value);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread leader = new Thread(() -> singleFlight.execute(1L, () -> {
+            await(release);
+            return "slow";
+        }));
+        leader.start();
+        Thread.sleep(100);
+
+        // execução
+        String value = singleFlight.execute(1L, () -> "fast");
+        release.countDown();
+        leader.join();
+
+        // verificação
+        assertThat(value).isEqualTo("fast");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
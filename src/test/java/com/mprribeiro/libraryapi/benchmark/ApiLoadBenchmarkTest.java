@@ -0,0 +1,191 @@
+package com.mprribeiro.libraryapi.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"application.rate-limit.enabled=false", "application.concurrency-limit.enabled=false"})
+public class ApiLoadBenchmarkTest {
+
+    private static final String LABEL = System.getProperty("benchmark.load.label", "baseline");
+    private static final double RATE = Double.parseDouble(System.getProperty("benchmark.load.rate", "200"));
+    private static final int CLIENTS = Integer.getInteger("benchmark.load.clients", 64);
+    private static final int BOOKS = Integer.getInteger("benchmark.load.books", 10_000);
+    private static final int OPEN_LOANS = Integer.getInteger("benchmark.load.open-loans", 1_000);
+    private static final int CUSTOMERS = Integer.getInteger("benchmark.load.customers", 1_000);
+    private static final long SEED = Long.getLong("benchmark.load.seed", 42);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.load.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.load.duration-seconds", 30));
+    private static final String MIX = System.getProperty("benchmark.load.mix",
+            "book-create:10,book-search:35,loan-create:15,loan-return:15,loan-search:25");
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Queue<String> availableIsbns = new ConcurrentLinkedQueue<>();
+    private final Queue<long[]> openLoans = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextBook = new AtomicLong();
+
+    @Test
+    @DisplayName("Deve medir a latência das operações da API sob uma taxa de chegada constante")
+    public void openModelLoadTest() throws Exception {
+        seedBooks();
+        seedOpenLoans();
+
+        LoadGenerator generator = new LoadGenerator();
+        for (String entry : MIX.split(",")) {
+            String[] operation = entry.split(":");
+            generator.operation(operation[0], Integer.parseInt(operation[1]), operation(operation[0]));
+        }
+
+        Map<String, LoadGenerator.Result> results = generator.run(RATE, WARMUP, DURATION, CLIENTS, SEED);
+
+        String report = LoadGenerator.report(LABEL, results, DURATION);
+        log.info("{}{}", System.lineSeparator(), report);
+        LoadGenerator.write(Paths.get("target", "load-reports"), LABEL, results, DURATION);
+        long requests = results.values().stream().mapToLong(LoadGenerator.Result::getCount).sum();
+        long errors = results.values().stream().mapToLong(LoadGenerator.Result::getErrors).sum();
+        assertThat(requests).isPositive();
+        assertThat(errors).isLessThan(Math.max(1, requests / 100));
+    }
+
+    private LoadGenerator.Operation operation(String name) {
+        switch (name) {
+            case "book-create":
+                return this::createBook;
+            case "book-search":
+                return this::searchBooks;
+            case "loan-create":
+                return this::createLoan;
+            case "loan-return":
+                return this::returnLoan;
+            case "loan-search":
+                return this::searchLoans;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + name);
+        }
+    }
+
+    private boolean createBook() throws Exception {
+        long book = nextBook.getAndIncrement();
+        String body = String.format("{\"title\":\"Livro %d\",\"author\":\"Autor %d\",\"isbn\":\"%s\"}", book, book % 100, isbn(book));
+        return send(HttpRequest.newBuilder(uri("/api/books")).POST(json(body)).header("Content-Type", "application/json")).statusCode() == 201;
+    }
+
+    private boolean searchBooks() throws Exception {
+        long book = ThreadLocalRandom.current().nextLong(BOOKS);
+        return send(HttpRequest.newBuilder(uri("/api/books?title=" + encode("Livro " + book) + "&page=0&size=10")).GET()).statusCode() == 200;
+    }
+
+    private boolean createLoan() throws Exception {
+        String isbn = availableIsbns.poll();
+        if (isbn == null) {
+            return false;
+        }
+        int customer = ThreadLocalRandom.current().nextInt(CUSTOMERS);
+        String body = String.format("{\"isbn\":\"%s\",\"customer\":\"Cliente %d\",\"email\":\"cliente%d@email.com\"}", isbn, customer, customer);
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/loans")).POST(json(body)).header("Content-Type", "application/json"));
+        if (response.statusCode() != 201) {
+            availableIsbns.add(isbn);
+            return false;
+        }
+        openLoans.add(new long[]{Long.parseLong(response.body()), Long.parseLong(isbn)});
+        return true;
+    }
+
+    private boolean returnLoan() throws Exception {
+        long[] loan = openLoans.poll();
+        if (loan == null) {
+            return false;
+        }
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/loans/" + loan[0]))
+                .method("PATCH", json("{\"returned\":true}")).header("Content-Type", "application/json"));
+        availableIsbns.add(Long.toString(loan[1]));
+        return response.statusCode() == 200;
+    }
+
+    private boolean searchLoans() throws Exception {
+        int customer = ThreadLocalRandom.current().nextInt(CUSTOMERS);
+        String query = "?customer=" + encode("Cliente " + customer) + "&isbn=" + isbn(ThreadLocalRandom.current().nextLong(BOOKS)) + "&page=0&size=10";
+        return send(HttpRequest.newBuilder(uri("/api/loans" + query)).GET()).statusCode() == 200;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void seedBooks() {
+        List<Object[]> batch = new ArrayList<>();
+        for (long book = 0; book < BOOKS; book++) {
+            String isbn = isbn(book);
+            batch.add(new Object[]{"Livro " + book, "Autor " + book % 100, isbn, Long.parseLong(isbn)});
+            if (book >= OPEN_LOANS) {
+                availableIsbns.add(isbn);
+            }
+            if (batch.size() == 1_000) {
+                jdbcTemplate.batchUpdate("insert into book (title, author, isbn, isbn_key, copies, available) values (?, ?, ?, ?, 1, 1)", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into book (title, author, isbn, isbn_key, copies, available) values (?, ?, ?, ?, 1, 1)", batch);
+        }
+        nextBook.set(BOOKS);
+    }
+
+    private void seedOpenLoans() {
+        jdbcTemplate.update("insert into loan (customer, customer_email, id_book, loan_date, due_date, status) "
+                + "select concat('Cliente ', mod(b.id, ?)), concat('cliente', mod(b.id, ?), '@email.com'), b.id, current_date, dateadd('DAY', 4, current_date), 'OPEN' "
+                + "from book b where b.isbn_key < ?", CUSTOMERS, CUSTOMERS, Long.parseLong(isbn(OPEN_LOANS)));
+        jdbcTemplate.query("select l.id, b.isbn_key from loan l join book b on b.id = l.id_book",
+                row -> {
+                    openLoans.add(new long[]{row.getLong(1), row.getLong(2)});
+                });
+        DatasetGenerator.reconcile(jdbcTemplate);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String isbn(long book) {
+        return Long.toString(DatasetGenerator.isbnKey(book));
+    }
+}
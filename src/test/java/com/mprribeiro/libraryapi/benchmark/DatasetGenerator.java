@@ -0,0 +1,226 @@
+package com.mprribeiro.libraryapi.benchmark;
+
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.support.Isbn;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int HISTORY_DAYS = 365;
+    private static final int LOAN_DAYS = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long seed;
+    private double bookSkew = 1.1;
+    private double customerSkew = 0.8;
+    private double openRatio = 0.3;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seed = seed;
+    }
+
+    public DatasetGenerator bookSkew(double bookSkew) {
+        this.bookSkew = bookSkew;
+        return this;
+    }
+
+    public DatasetGenerator customerSkew(double customerSkew) {
+        this.customerSkew = customerSkew;
+        return this;
+    }
+
+    public DatasetGenerator openRatio(double openRatio) {
+        this.openRatio = openRatio;
+        return this;
+    }
+
+    public Dataset generate(int books, int customers, int loans) {
+        Random random = new Random(seed);
+        clear();
+        insertBooks(books);
+
+        Zipf bookPopularity = new Zipf(books, bookSkew, random);
+        Zipf customerActivity = new Zipf(customers, customerSkew, random);
+        int[] loanBooks = new int[loans];
+        int[] loanCustomers = new int[loans];
+        int[] lastLoan = new int[books];
+        Arrays.fill(lastLoan, -1);
+        for (int i = 0; i < loans; i++) {
+            loanBooks[i] = bookPopularity.next(random);
+            loanCustomers[i] = customerActivity.next(random);
+            lastLoan[loanBooks[i]] = i;
+        }
+
+        LocalDate today = LocalDate.now();
+        Dataset dataset = new Dataset(books, customers, loans, bookPopularity, customerActivity);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < loans; i++) {
+            LocalDate loanDate = today.minusDays(HISTORY_DAYS - (long) i * HISTORY_DAYS / loans);
+            LocalDate dueDate = loanDate.plusDays(LOAN_DAYS);
+            boolean open = lastLoan[loanBooks[i]] == i && random.nextDouble() < openRatio;
+            Timestamp returnedAt = open ? null : Timestamp.valueOf(loanDate.plusDays(random.nextInt(LOAN_DAYS * 2) + 1).atStartOfDay());
+            if (open) {
+                dataset.open++;
+                if (!dueDate.isAfter(today)) {
+                    dataset.overdue++;
+                }
+            }
+            int customer = loanCustomers[i];
+            String email = "cliente" + customer + "@email.com";
+            batch.add(new Object[]{Dataset.customer(customer), email, Loan.noticeBucketOf(email), loanBooks[i] + 1L,
+                    Date.valueOf(loanDate), Date.valueOf(dueDate), open ? "OPEN" : "RETURNED", returnedAt});
+            if (batch.size() == BATCH_SIZE) {
+                insertLoans(batch);
+            }
+        }
+        insertLoans(batch);
+        reconcile(jdbcTemplate);
+        return dataset;
+    }
+
+    public static void reconcile(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("update book b set available = copies - (select count(*) from loan l where l.id_book = b.id and l.status = 'OPEN')");
+        jdbcTemplate.update("delete from customer");
+        jdbcTemplate.update("insert into customer (customer_key, name, email, active_loans) "
+                + "select lower(trim(regexp_replace(l.customer, '\\s+', ' '))), min(l.customer), max(l.customer_email), sum(case when l.status = 'OPEN' then 1 else 0 end) "
+                + "from loan l where l.customer is not null group by lower(trim(regexp_replace(l.customer, '\\s+', ' ')))");
+    }
+
+    public static long isbnKey(long book) {
+        long key = 979_000_000_000_0L + book * 10;
+        while (!Isbn.isValid(Long.toString(key))) {
+            key++;
+        }
+        return key;
+    }
+
+    private void clear() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.execute("TRUNCATE TABLE loan RESTART IDENTITY");
+        jdbcTemplate.execute("TRUNCATE TABLE customer");
+        jdbcTemplate.execute("TRUNCATE TABLE book RESTART IDENTITY");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    private void insertBooks(int books) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int book = 0; book < books; book++) {
+            long isbnKey = isbnKey(book);
+            batch.add(new Object[]{"Livro " + book, "Autor " + book % 997, Long.toString(isbnKey), isbnKey});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("insert into book (title, author, isbn, isbn_key, copies, available) values (?, ?, ?, ?, 1, 1)", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into book (title, author, isbn, isbn_key, copies, available) values (?, ?, ?, ?, 1, 1)", batch);
+        }
+    }
+
+    private void insertLoans(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into loan (customer, customer_email, notice_bucket, id_book, loan_date, due_date, status, returned_at) "
+                    + "values (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+            batch.clear();
+        }
+    }
+
+    public static class Dataset {
+
+        private final int books;
+        private final int customers;
+        private final int loans;
+        private final Zipf bookPopularity;
+        private final Zipf customerActivity;
+        private int open;
+        private int overdue;
+
+        Dataset(int books, int customers, int loans, Zipf bookPopularity, Zipf customerActivity) {
+            this.books = books;
+            this.customers = customers;
+            this.loans = loans;
+            this.bookPopularity = bookPopularity;
+            this.customerActivity = customerActivity;
+        }
+
+        public static String customer(int customer) {
+            return "Cliente " + customer;
+        }
+
+        public long randomBookId(Random random) {
+            return bookPopularity.next(random) + 1L;
+        }
+
+        public long randomIsbnKey(Random random) {
+            return isbnKey(bookPopularity.next(random));
+        }
+
+        public String randomCustomer(Random random) {
+            return customer(customerActivity.next(random));
+        }
+
+        public int getBooks() {
+            return books;
+        }
+
+        public int getCustomers() {
+            return customers;
+        }
+
+        public int getLoans() {
+            return loans;
+        }
+
+        public int getOpen() {
+            return open;
+        }
+
+        public int getOverdue() {
+            return overdue;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("books=%d customers=%d loans=%d open=%d overdue=%d", books, customers, loans, open, overdue);
+        }
+    }
+
+    static class Zipf {
+
+        private final double[] cumulative;
+        private final int[] items;
+
+        Zipf(int size, double skew, Random random) {
+            cumulative = new double[size];
+            double total = 0;
+            for (int rank = 0; rank < size; rank++) {
+                total += 1 / Math.pow(rank + 1, skew);
+                cumulative[rank] = total;
+            }
+            for (int rank = 0; rank < size; rank++) {
+                cumulative[rank] /= total;
+            }
+            items = new int[size];
+            for (int i = 0; i < size; i++) {
+                int j = random.nextInt(i + 1);
+                items[i] = items[j];
+                items[j] = i;
+            }
+        }
+
+        int next(Random random) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            return items[Math.min(cumulative.length - 1, rank < 0 ? -rank - 1 : rank)];
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.mprribeiro.libraryapi.benchmark;
+
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.service.EmailService;
+import com.mprribeiro.libraryapi.api.service.LateLoanPipeline;
+import com.mprribeiro.libraryapi.api.service.LoanService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class LateLoanPipelineBenchmarkTest {
+
+    private static final int LOANS = Integer.getInteger("benchmark.late-loans.size", 1_000_000);
+    private static final int CUSTOMERS = Math.max(1, LOANS / 10);
+    private static final int SHARDS = Integer.getInteger("benchmark.late-loans.shards", 16);
+    private static final long SEND_LATENCY_MICROS = Long.getLong("benchmark.late-loans.send-latency-micros", 200);
+    private static final int MAX_PARALLELISM = Integer.getInteger("benchmark.late-loans.max-parallelism", Runtime.getRuntime().availableProcessors());
+    private static final int MAIL_CONCURRENCY = Integer.getInteger("benchmark.late-loans.mail-concurrency", 32);
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Deve medir a escalabilidade do pipeline de atrasos com o número de núcleos")
+    public void scaleWithCoresTest() {
+        seedLateLoans();
+
+        AtomicLong sent = new AtomicLong();
+        EmailService email = (message, mailList) -> {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(SEND_LATENCY_MICROS));
+            sent.addAndGet(mailList.size());
+        };
+
+        List<Integer> shards = IntStream.range(0, SHARDS).boxed().collect(Collectors.toList());
+        long baseline = 0;
+        List<Integer> cores = IntStream.iterate(1, n -> n < MAX_PARALLELISM, n -> n * 2).boxed().collect(Collectors.toList());
+        cores.add(MAX_PARALLELISM);
+        for (int parallelism : cores) {
+            LateLoanPipeline pipeline = new LateLoanPipeline(loanService, email, new SimpleMeterRegistry(), parallelism, MAIL_CONCURRENCY, 1000);
+            ReflectionTestUtils.setField(pipeline, "message", "Atenção!!! Empréstimo atrasado");
+            sent.set(0);
+            jdbcTemplate.update("update loan set late_notice_on = null");
+
+            long start = System.nanoTime();
+            pipeline.execute(shards, shard -> pipeline.process(shard, SHARDS));
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            pipeline.destroy();
+
+            baseline = baseline == 0 ? elapsed : baseline;
+            log.info(String.format("late-loans loans=%d cores=%d/%d mail-concurrency=%d notices=%d elapsed=%dms speedup=%.2fx",
+                    LOANS, parallelism, Runtime.getRuntime().availableProcessors(), MAIL_CONCURRENCY, sent.get(), elapsed, baseline / (double) Math.max(1, elapsed)));
+            assertThat(sent.get()).isGreaterThanOrEqualTo(CUSTOMERS);
+        }
+    }
+
+    private void seedLateLoans() {
+        long book = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from book", Long.class);
+        jdbcTemplate.update("insert into book (id, title, author, isbn, isbn_key, copies, available) values (?, 'A Cabana', 'Pâmela', '9780306406157', 9780306406157, ?, ?)", book, LOANS, LOANS);
+        Date loanDate = Date.valueOf(LocalDate.now().minusDays(10));
+        Date dueDate = Date.valueOf(LocalDate.now().minusDays(6));
+        int batchSize = 10_000;
+        for (int from = 0; from < LOANS; from += batchSize) {
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            for (int i = from; i < Math.min(LOANS, from + batchSize); i++) {
+                int customer = i % CUSTOMERS;
+                String email = "cliente" + customer + "@email.com";
+                batch.add(new Object[]{"Cliente " + customer, email, Loan.noticeBucketOf(email), book, loanDate, dueDate});
+            }
+            jdbcTemplate.batchUpdate("insert into loan (customer, customer_email, notice_bucket, id_book, loan_date, due_date, status) values (?, ?, ?, ?, ?, ?, 'OPEN')", batch);
+        }
+        DatasetGenerator.reconcile(jdbcTemplate);
+    }
+}
@@ -0,0 +1,127 @@
+package com.mprribeiro.libraryapi.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class LoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    @FunctionalInterface
+    public interface Operation {
+        boolean call() throws Exception;
+    }
+
+    public static class Result {
+
+        private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+
+        public Histogram getLatencies() {
+            return latencies;
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public long getCount() {
+            return latencies.getTotalCount();
+        }
+    }
+
+    private final Map<String, Operation> operations = new LinkedHashMap<>();
+    private final List<String> schedule = new ArrayList<>();
+
+    public LoadGenerator operation(String name, int weight, Operation operation) {
+        operations.put(name, operation);
+        for (int i = 0; i < weight; i++) {
+            schedule.add(name);
+        }
+        return this;
+    }
+
+    public Map<String, Result> run(double ratePerSecond, Duration warmup, Duration duration, int clients, long seed) throws InterruptedException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        operations.keySet().forEach(name -> results.put(name, new Result()));
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        Random random = new Random(seed);
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        for (long arrival = start; arrival < end; arrival += interval) {
+            long wait = arrival - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String name = schedule.get(random.nextInt(schedule.size()));
+            Operation operation = operations.get(name);
+            Result result = results.get(name);
+            long intendedStart = arrival;
+            executor.execute(() -> {
+                boolean success;
+                try {
+                    success = operation.call();
+                } catch (Exception e) {
+                    success = false;
+                }
+                if (intendedStart >= measureFrom) {
+                    result.latencies.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart)));
+                    if (!success) {
+                        result.errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+        return results;
+    }
+
+    public static String report(String label, Map<String, Result> results, Duration duration) {
+        StringBuilder report = new StringBuilder(String.format("load label=%s duration=%ds%n", label, duration.getSeconds()));
+        report.append(String.format("%-12s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "rps", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)"));
+        results.forEach((name, result) -> {
+            Histogram latencies = result.getLatencies();
+            report.append(String.format("%-12s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name, result.getCount(), result.getErrors(), result.getCount() / (double) duration.getSeconds(),
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue())));
+        });
+        return report.toString();
+    }
+
+    public static void write(Path directory, String label, Map<String, Result> results, Duration duration) throws IOException {
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(label + ".txt"), report(label, results, duration).getBytes());
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(label + "-" + entry.getKey() + ".hgrm")))) {
+                entry.getValue().getLatencies().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.mprribeiro.libraryapi.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.mprribeiro.libraryapi.api.logging.JsonEventEncoder;
+import com.mprribeiro.libraryapi.api.logging.RingBufferAppender;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("benchmark")
+public class LoggingOverheadBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.logging.iterations", 200_000);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Deve medir o custo do log de acesso no caminho da requisição, síncrono e assíncrono")
+    public void accessLogOverheadTest() {
+        Histogram sync = measure(fileAppender("sync.log"));
+        RingBufferAppender ring = new RingBufferAppender();
+        ring.setContext(fileContext);
+        ring.setName("async");
+        ring.setCapacity(1 << 16);
+        ring.setDropPolicy(RingBufferAppender.DropPolicy.BLOCK);
+        ring.addAppender(fileAppender("async.log"));
+        Histogram async = measure(ring);
+
+        log.info(String.format("logging iterations=%d sync p50=%dns p99=%dns p99.9=%dns | async p50=%dns p99=%dns p99.9=%dns dropped=%d",
+                ITERATIONS,
+                sync.getValueAtPercentile(50), sync.getValueAtPercentile(99), sync.getValueAtPercentile(99.9),
+                async.getValueAtPercentile(50), async.getValueAtPercentile(99), async.getValueAtPercentile(99.9),
+                ring.getDroppedCount()));
+        assertThat(ring.getDroppedCount()).isZero();
+        assertThat(async.getValueAtPercentile(50)).isLessThan(sync.getValueAtPercentile(50));
+    }
+
+    private final LoggerContext fileContext = new LoggerContext();
+
+    private FileAppender<ILoggingEvent> fileAppender(String name) {
+        JsonEventEncoder encoder = new JsonEventEncoder();
+        encoder.setContext(fileContext);
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(fileContext);
+        appender.setName(name);
+        appender.setFile(dir.resolve(name).toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private Histogram measure(Appender<ILoggingEvent> appender) {
+        appender.start();
+        Logger logger = fileContext.getLogger("access-" + appender.getName());
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        Histogram latencies = new Histogram(TimeUnit.SECONDS.toNanos(10), 3);
+        for (int warmup = 0; warmup < 2; warmup++) {
+            latencies.reset();
+            for (int i = 0; i < ITERATIONS; i++) {
+                Map<String, Object> event = new LinkedHashMap<>();
+                event.put("method", "GET");
+                event.put("route", "/api/books/{id}");
+                event.put("status", 200);
+                event.put("latencyMs", 1.5);
+                event.put("ids", Map.of("id", Integer.toString(i)));
+                long start = System.nanoTime();
+                logger.info("request", event);
+                latencies.recordValue(System.nanoTime() - start);
+            }
+        }
+        appender.stop();
+        return latencies;
+    }
+}
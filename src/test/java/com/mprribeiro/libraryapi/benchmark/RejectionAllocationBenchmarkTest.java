@@ -0,0 +1,89 @@
+package com.mprribeiro.libraryapi.benchmark;
+
+import com.mprribeiro.libraryapi.api.ApplicationControllerAdvice;
+import com.mprribeiro.libraryapi.api.config.CountCacheProperties;
+import com.mprribeiro.libraryapi.api.exception.ApiErrors;
+import com.mprribeiro.libraryapi.api.exception.BusinessException;
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.service.BookService;
+import com.mprribeiro.libraryapi.api.service.KnownIsbnFilter;
+import com.mprribeiro.libraryapi.api.service.impl.BookServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("benchmark")
+public class RejectionAllocationBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.rejections.iterations", 1_000_000);
+
+    private final ApplicationControllerAdvice advice = new ApplicationControllerAdvice();
+
+    @Test
+    @DisplayName("Deve medir a alocação por rejeição de isbn duplicado")
+    public void duplicatedIsbnRejectionAllocationTest() {
+        BookRepository repository = duplicatedIsbnRepository();
+        KnownIsbnFilter isbnFilter = new KnownIsbnFilter(repository, new SimpleMeterRegistry(), 1000, 0.01, 1 << 20, 100);
+        BookService service = new BookServiceImpl(repository, event -> { }, isbnFilter, new SimpleMeterRegistry(), new CountCacheProperties(), 500);
+        Book book = Book.builder().title("A Cabana").author("Pâmela").isbn("9780306406157").build();
+
+        Supplier<ApiErrors> legacy = () -> {
+            try {
+                throw new LegacyBusinessException("Isbn já cadastrado!");
+            } catch (LegacyBusinessException e) {
+                return new ApiErrors(e.getMessage());
+            }
+        };
+        Supplier<ApiErrors> current = () -> {
+            try {
+                service.save(book);
+                throw new IllegalStateException();
+            } catch (BusinessException e) {
+                return advice.handleVBusinessException(e);
+            }
+        };
+
+        measure(legacy);
+        measure(current);
+        double legacyBytes = measure(legacy);
+        double currentBytes = measure(current);
+
+        log.info(String.format("rejections iterations=%d legacy=%.1f bytes/op current=%.1f bytes/op",
+                ITERATIONS, legacyBytes, currentBytes));
+        assertThat(currentBytes).isLessThan(legacyBytes);
+    }
+
+    private double measure(Supplier<ApiErrors> rejection) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long sink = 0;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += rejection.get().getErrors().size();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertThat(sink).isEqualTo(ITERATIONS);
+        return allocated / (double) ITERATIONS;
+    }
+
+    private BookRepository duplicatedIsbnRepository() {
+        return (BookRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{BookRepository.class},
+                (proxy, method, args) -> "existsByIsbnKey".equals(method.getName()) ? Boolean.TRUE : null);
+    }
+
+    private static class LegacyBusinessException extends RuntimeException {
+        LegacyBusinessException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.mprribeiro.libraryapi.benchmark;
+
+import com.mprribeiro.libraryapi.api.dto.BookDTO;
+import com.mprribeiro.libraryapi.api.dto.LoanDTO;
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.entity.Customer;
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.model.entity.LoanStatus;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.model.repository.CustomerRepository;
+import com.mprribeiro.libraryapi.api.model.repository.LoanRepository;
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
+import com.mprribeiro.libraryapi.api.support.HistoryCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class RepositoryScaleBenchmarkTest {
+
+    // the dataset lives in the in-memory H2 heap (~1GB at 1M loans), so the 10M tier is opt-in on a large heap:
+    // -Dbenchmark.repository.tiers=10000,1000000,10000000 -DargLine=-Xmx12g
+    private static final String TIERS = System.getProperty("benchmark.repository.tiers", "10000,1000000");
+    private static final int ITERATIONS = Integer.getInteger("benchmark.repository.iterations", 200);
+    private static final long MAX_MILLIS_PER_METHOD = Long.getLong("benchmark.repository.max-millis-per-method", 5_000);
+    private static final long SEED = Long.getLong("benchmark.repository.seed", 42);
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(SEED);
+
+    @Test
+    @DisplayName("Deve medir todos os métodos dos repositórios em cada faixa de volume")
+    public void repositoryMethodsAtScaleTest() {
+        for (String tier : TIERS.split(",")) {
+            int loans = Integer.parseInt(tier.trim());
+            long start = System.nanoTime();
+            DatasetGenerator.Dataset dataset = new DatasetGenerator(jdbcTemplate, SEED)
+                    .generate(Math.max(100, loans / 10), Math.max(10, loans / 20), loans);
+            Runtime runtime = Runtime.getRuntime();
+            log.info(String.format("repository tier=%d %s generated in %dms heap=%dMB/%dMB",
+                    loans, dataset, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    (runtime.totalMemory() - runtime.freeMemory()) >> 20, runtime.maxMemory() >> 20));
+            assertThat(loanRepository.count()).isEqualTo(loans);
+
+            benchmarkBookRepository(loans, dataset);
+            benchmarkCustomerRepository(loans, dataset);
+            benchmarkLoanRepository(loans, dataset);
+        }
+    }
+
+    private void benchmarkBookRepository(int tier, DatasetGenerator.Dataset dataset) {
+        measure(tier, "BookRepository.findById", () -> bookRepository.findById(dataset.randomBookId(random)));
+        measure(tier, "BookRepository.existsByIsbnKey", () -> bookRepository.existsByIsbnKey(dataset.randomIsbnKey(random)));
+        measure(tier, "BookRepository.findByIsbnKey", () -> bookRepository.findByIsbnKey(dataset.randomIsbnKey(random)));
+        measure(tier, "BookRepository.findByIdGreaterThanOrderByIdAsc",
+                () -> bookRepository.findByIdGreaterThanOrderByIdAsc(dataset.randomBookId(random), PageRequest.of(0, 1000)));
+        measure(tier, "BookRepository.findMaxId", bookRepository::findMaxId);
+        measure(tier, "BookRepository.findIsbnKeysInRange", () -> {
+            long from = random.nextInt(dataset.getBooks());
+            return bookRepository.findIsbnKeysInRange(from, from + 10_000);
+        });
+        measure(tier, "BookRepository.findAll(Example)", () -> bookRepository.findAll(titleExample(dataset), PageRequest.of(0, 10)));
+        measure(tier, "BookRepository.findSlice", () -> bookRepository.findSlice(titleExample(dataset), PageRequest.of(0, 10)));
+        measure(tier, "BookRepository.findFields", () -> bookRepository.findFields(titleExample(dataset),
+                FieldSelection.of(Arrays.asList("id", "title"), BookDTO.FIELDS), PageRequest.of(0, 10)));
+        measure(tier, "BookRepository.countByAuthor", () -> bookRepository.countByAuthor(PageRequest.of(0, 1000)));
+        measure(tier, "BookRepository.findAuthorById", () -> bookRepository.findAuthorById(dataset.randomBookId(random)));
+        measure(tier, "BookRepository.findAvailable", () -> bookRepository.findAvailable(dataset.randomBookId(random)));
+        measure(tier, "BookRepository.reserveCopy+releaseCopy", () -> {
+            long book = dataset.randomBookId(random);
+            return bookRepository.reserveCopy(book) == 1 ? bookRepository.releaseCopy(book) : 0;
+        });
+    }
+
+    private void benchmarkCustomerRepository(int tier, DatasetGenerator.Dataset dataset) {
+        measure(tier, "CustomerRepository.findActiveLoans",
+                () -> customerRepository.findActiveLoans(Customer.keyOf(dataset.randomCustomer(random))));
+        measure(tier, "CustomerRepository.reserveLoan+releaseLoan", () -> {
+            String key = Customer.keyOf(dataset.randomCustomer(random));
+            return customerRepository.reserveLoan(key, Integer.MAX_VALUE) == 1 ? customerRepository.releaseLoan(key) : 0;
+        });
+        measure(tier, "CustomerRepository.registerWithLoan", () -> {
+            String customer = dataset.randomCustomer(random);
+            return customerRepository.registerWithLoan(Customer.keyOf(customer), customer, null);
+        });
+    }
+
+    private void benchmarkLoanRepository(int tier, DatasetGenerator.Dataset dataset) {
+        LocalDate today = LocalDate.now();
+        measure(tier, "LoanRepository.existsByBookAndStatus", () -> loanRepository.existsByBookAndStatus(
+                Book.builder().id(dataset.randomBookId(random)).build(), LoanStatus.OPEN));
+        measure(tier, "LoanRepository.findByBookIsbnKeyOrCustomer", () -> loanRepository.findByBookIsbnKeyOrCustomer(
+                dataset.randomIsbnKey(random), dataset.randomCustomer(random), PageRequest.of(0, 10)));
+        measure(tier, "LoanRepository.findSliceByBookIsbnKeyOrCustomer", () -> loanRepository.findSliceByBookIsbnKeyOrCustomer(
+                dataset.randomIsbnKey(random), dataset.randomCustomer(random), PageRequest.of(0, 10)));
+        measure(tier, "LoanRepository.countByBookIsbnKeyOrCustomer", () -> loanRepository.countByBookIsbnKeyOrCustomer(
+                dataset.randomIsbnKey(random), dataset.randomCustomer(random)));
+        measure(tier, "LoanRepository.findFieldsByBookIsbnKeyOrCustomer", () -> loanRepository.findFieldsByBookIsbnKeyOrCustomer(
+                dataset.randomIsbnKey(random), dataset.randomCustomer(random),
+                FieldSelection.of(Arrays.asList("id", "customer"), LoanDTO.FIELDS), PageRequest.of(0, 10)));
+        measure(tier, "LoanRepository.countByCustomer", () -> loanRepository.countByCustomer(PageRequest.of(0, 1000)));
+        measure(tier, "LoanRepository.transition", () -> {
+            long loan = random.nextInt(dataset.getLoans()) + 1L;
+            return loanRepository.transition(loan, LoanStatus.OPEN, LoanStatus.RETURNED, LocalDateTime.now()) == 1
+                    ? loanRepository.transition(loan, LoanStatus.RETURNED, LoanStatus.OPEN, null) : 0;
+        });
+        measure(tier, "LoanRepository.findHistory", () -> loanRepository.findHistory(
+                dataset.randomBookId(random), HistoryCursor.MIN_DATE, HistoryCursor.MAX_DATE, Long.MAX_VALUE, PageRequest.of(0, 10)));
+        measure(tier, "LoanRepository.findByDueDateIsNull", () -> loanRepository.findByDueDateIsNull(PageRequest.of(0, 1000)));
+        measure(tier, "LoanRepository.findByStatusAndDueDateLessThanEqual",
+                () -> loanRepository.findByStatusAndDueDateLessThanEqual(LoanStatus.OPEN, today));
+        measure(tier, "LoanRepository.findByNoticeBucketIsNull", () -> loanRepository.findByNoticeBucketIsNull(PageRequest.of(0, 1000)));
+        measure(tier, "LoanRepository.findLateLoansInBuckets", () -> {
+            int shard = random.nextInt(8);
+            return loanRepository.findLateLoansInBuckets(LoanStatus.OPEN, today,
+                    shard * Loan.NOTICE_BUCKETS / 8, (shard + 1) * Loan.NOTICE_BUCKETS / 8, 0, PageRequest.of(0, 1000));
+        });
+        measure(tier, "LoanRepository.markLateNoticeSent", () -> {
+            List<Long> ids = IntStream.range(0, 100).mapToObj(i -> random.nextInt(dataset.getLoans()) + 1L).collect(Collectors.toList());
+            return loanRepository.markLateNoticeSent(ids, today);
+        });
+    }
+
+    private Example<Book> titleExample(DatasetGenerator.Dataset dataset) {
+        return Example.of(Book.builder().title("Livro " + random.nextInt(dataset.getBooks())).build(),
+                ExampleMatcher.matching().withIgnoreCase().withIgnorePaths("isbnKey", "copies", "available")
+                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+    }
+
+    private void measure(int tier, String method, Supplier<?> call) {
+        for (int i = 0; i < 5; i++) {
+            call.get();
+        }
+        Histogram latencies = new Histogram(TimeUnit.MINUTES.toMicros(5), 3);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_MILLIS_PER_METHOD);
+        for (int i = 0; i < ITERATIONS && System.nanoTime() < deadline; i++) {
+            long start = System.nanoTime();
+            call.get();
+            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+        log.info(String.format("repository tier=%d method=%s ops=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms",
+                tier, method, latencies.getTotalCount(), latencies.getMean() / 1000,
+                latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(99) / 1000.0,
+                latencies.getMaxValue() / 1000.0));
+        assertThat(latencies.getTotalCount()).isPositive();
+    }
+}
@@ -0,0 +1,106 @@
+package com.mprribeiro.libraryapi.benchmark;
+
+import com.mprribeiro.libraryapi.LibraryApiApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("benchmark")
+public class StartupBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.startup.iterations", 5);
+    private static final String PROFILES = System.getProperty("benchmark.startup.profiles", "default,prod");
+    private static final String JAR = System.getProperty("benchmark.startup.jar", "");
+    private static final String JVM_ARGS = System.getProperty("benchmark.startup.jvm-args", "");
+    private static final long TIMEOUT_SECONDS = 120;
+
+    @Test
+    @DisplayName("Deve medir o tempo até a primeira requisição atendida")
+    public void timeToFirstRequestTest() throws Exception {
+        for (String profile : PROFILES.split(",")) {
+            List<Long> samples = new ArrayList<>();
+            for (int i = 0; i < ITERATIONS; i++) {
+                samples.add(timeToFirstRequest(profile));
+            }
+            Collections.sort(samples);
+            log.info(String.format("startup profile=%s iterations=%d min=%dms median=%dms max=%dms",
+                    profile, samples.size(), samples.get(0), samples.get(samples.size() / 2), samples.get(samples.size() - 1)));
+            assertThat(samples).allMatch(sample -> sample > 0);
+        }
+    }
+
+    private long timeToFirstRequest(String profile) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (!JVM_ARGS.isEmpty()) {
+            command.addAll(Arrays.asList(JVM_ARGS.split(" ")));
+        }
+        command.add("-Dserver.port=" + port);
+        command.add("-Dspring.profiles.active=" + profile);
+        command.add("-Dspring.devtools.restart.enabled=false");
+        if (JAR.isEmpty()) {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(LibraryApiApplication.class.getName());
+        } else {
+            command.add("-jar");
+            command.add(JAR);
+        }
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(System.getProperty("java.io.tmpdir"), "startup-benchmark.log"))
+                .start();
+        try {
+            URL url = new URL("http://localhost:" + port + "/api/books");
+            long deadline = start + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (System.nanoTime() < deadline && process.isAlive()) {
+                if (respondsOk(url)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("Application did not answer on port " + port);
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private boolean respondsOk(URL url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(100);
+            try {
+                return connection.getResponseCode() == 200;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.mprribeiro.libraryapi.journal;
+
+import com.mprribeiro.libraryapi.api.journal.LoanEvent;
+import com.mprribeiro.libraryapi.api.journal.LoanProjection;
+import com.mprribeiro.libraryapi.api.journal.MappedLoanJournal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedLoanJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Deve reler os eventos gravados no journal após reabrir")
+    public void replayAfterReopenTest() throws Exception {
+        // cenário
+        MappedLoanJournal journal = createJournal(1024);
+        journal.append(new LoanEvent(LoanEvent.Type.CREATED, 1, 10, 100));
+        journal.append(new LoanEvent(LoanEvent.Type.RETURNED, 1, 10, 200));
+        journal.destroy();
+
+        // execução
+        MappedLoanJournal reopened = createJournal(1024);
+        reopened.append(new LoanEvent(LoanEvent.Type.CREATED, 2, 20, 300));
+        List<LoanEvent> events = new ArrayList<>();
+        long count = reopened.replay(events::add);
+        reopened.destroy();
+
+        // verificação
+        assertThat(count).isEqualTo(3);
+        assertThat(events).extracting(LoanEvent::getType)
+                .containsExactly(LoanEvent.Type.CREATED, LoanEvent.Type.RETURNED, LoanEvent.Type.CREATED);
+        assertThat(events).extracting(LoanEvent::getLoanId).containsExactly(1L, 1L, 2L);
+        assertThat(events.get(2).getBookId()).isEqualTo(20);
+        assertThat(events.get(2).getTimestamp()).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("Deve truncar o journal no primeiro registro corrompido ao reabrir")
+    public void truncateAtTornRecordTest() throws Exception {
+        // cenário
+        MappedLoanJournal journal = createJournal(1024);
+        journal.append(new LoanEvent(LoanEvent.Type.CREATED, 1, 10, 100));
+        journal.append(new LoanEvent(LoanEvent.Type.CREATED, 2, 20, 200));
+        journal.append(new LoanEvent(LoanEvent.Type.CREATED, 3, 30, 300));
+        journal.destroy();
+        Path segment = Files.list(directory).findFirst().get();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, 99), 32);
+        }
+
+        // execução
+        MappedLoanJournal reopened = createJournal(1024);
+        reopened.append(new LoanEvent(LoanEvent.Type.RETURNED, 1, 10, 400));
+        reopened.destroy();
+        MappedLoanJournal recovered = createJournal(1024);
+        List<LoanEvent> events = new ArrayList<>();
+        long count = recovered.replay(events::add);
+        recovered.destroy();
+
+        // verificação
+        assertThat(count).isEqualTo(2);
+        assertThat(events).extracting(LoanEvent::getType).containsExactly(LoanEvent.Type.CREATED, LoanEvent.Type.RETURNED);
+        assertThat(events).extracting(LoanEvent::getTimestamp).containsExactly(100L, 400L);
+    }
+
+    @Test
+    @DisplayName("Deve criar novos segmentos quando o atual estiver cheio")
+    public void rollSegmentsTest() throws Exception {
+        // cenário
+        MappedLoanJournal journal = createJournal(64);
+
+        // execução
+        for (long id = 1; id <= 5; id++) {
+            journal.append(new LoanEvent(LoanEvent.Type.CREATED, id, id, id));
+        }
+        List<LoanEvent> events = new ArrayList<>();
+        journal.replay(events::add);
+        journal.destroy();
+
+        // verificação
+        assertThat(Files.list(directory).count()).isEqualTo(3);
+        assertThat(events).extracting(LoanEvent::getLoanId).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir a projeção de empréstimos abertos a partir do journal")
+    public void rebuildProjectionTest() throws Exception {
+        // cenário
+        MappedLoanJournal journal = createJournal(1024);
+        journal.append(new LoanEvent(LoanEvent.Type.CREATED, 1, 10, 100));
+        journal.append(new LoanEvent(LoanEvent.Type.CREATED, 2, 20, 100));
+        journal.append(new LoanEvent(LoanEvent.Type.RETURNED, 1, 10, 200));
+
+        // execução
+        LoanProjection projection = new LoanProjection(journal);
+        projection.rebuild();
+        journal.destroy();
+
+        // verificação
+        assertThat(projection.getOpenLoans()).isEqualTo(1);
+        assertThat(projection.isOpen(2)).isTrue();
+        assertThat(projection.getCreatedLoans()).isEqualTo(2);
+        assertThat(projection.getReturnedLoans()).isEqualTo(1);
+    }
+
+    private MappedLoanJournal createJournal(int segmentSize) throws Exception {
+        return new MappedLoanJournal(directory.toString(), segmentSize, 1, true);
+    }
+}
@@ -1,16 +1,25 @@
 package com.mprribeiro.libraryapi.model.repository;
 
+import com.mprribeiro.libraryapi.api.dto.BookDTO;
 import com.mprribeiro.libraryapi.api.model.entity.Book;
 import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.support.FieldSelection;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,29 +39,29 @@ public class BookRepositoryTest {
     @DisplayName("Deve retornar verdadeiro quando existir o livro na base com o isbn informado")
     public void returnTrueWhenIsbnExists () {
         // cenário
-        String isbn = "123";
+        long isbnKey = 9780306406157L;
         Book book = createBook();
         entityManager.persist(book);
 
         // execução
-        boolean isbnExists = repository.existsByIsbn(isbn);
+        boolean isbnExists = repository.existsByIsbnKey(isbnKey);
 
         // verificação
         assertThat(isbnExists).isTrue();
     }
 
     private Book createBook() {
-        return Book.builder().title("Who let the dogs out").author("Lica").isbn("123").build();
+        return Book.builder().title("Who let the dogs out").author("Lica").isbn("9780306406157").isbnKey(9780306406157L).build();
     }
 
     @Test
     @DisplayName("Deve retornar falso quando não existir um livro na base com o isbn informado")
     public void returnFalseWhenIsbnDoesntExist () {
         // cenário
-        String isbn = "123";
+        long isbnKey = 9780306406157L;
 
         // execução
-        boolean isbnExists = repository.existsByIsbn(isbn);
+        boolean isbnExists = repository.existsByIsbnKey(isbnKey);
 
         // verificação
         assertThat(isbnExists).isFalse();
@@ -97,6 +106,40 @@ public class BookRepositoryTest {
         assertThat(deletedBook).isNull();
     }
 
+    @Test
+    @DisplayName("Deve buscar uma fatia de livros por exemplo sem contar o total")
+    public void findSliceByExampleTest() {
+        // cenário
+        entityManager.persist(createBook());
+        entityManager.persist(Book.builder().title("Who let the cats out").author("Lica").isbn("9780804429573").isbnKey(9780804429573L).build());
+        entityManager.persist(Book.builder().title("Dom Casmurro").author("Machado").isbn("9780000000002").isbnKey(9780000000002L).build());
+        Example<Book> example = Example.of(Book.builder().author("lica").build(),
+                ExampleMatcher.matching().withIgnoreCase().withIgnorePaths("isbnKey").withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
 
+        // execução
+        Slice<Book> first = repository.findSlice(example, PageRequest.of(0, 1, Sort.by("title")));
+        Slice<Book> second = repository.findSlice(example, PageRequest.of(1, 1, Sort.by("title")));
 
+        // verificação
+        assertThat(first.getContent()).extracting(Book::getTitle).containsExactly("Who let the cats out");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(Book::getTitle).containsExactly("Who let the dogs out");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve projetar apenas os campos pedidos do livro")
+    public void findFieldsByExampleTest() {
+        // cenário
+        entityManager.persist(createBook());
+        Example<Book> example = Example.of(Book.builder().build(), ExampleMatcher.matching().withIgnorePaths("isbnKey"));
+
+        // execução
+        Slice<Map<String, Object>> result = repository.findFields(example, FieldSelection.of(Arrays.asList("title", "isbn"), BookDTO.FIELDS), PageRequest.of(0, 10));
+
+        // verificação
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getContent().get(0)).containsOnlyKeys("title", "isbn").containsEntry("title", "Who let the dogs out");
+        assertThat(result.hasNext()).isFalse();
+    }
 }
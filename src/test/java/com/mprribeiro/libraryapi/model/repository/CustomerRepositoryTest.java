@@ -0,0 +1,76 @@
+package com.mprribeiro.libraryapi.model.repository;
+
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.entity.Customer;
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.model.entity.LoanStatus;
+import com.mprribeiro.libraryapi.api.model.repository.CustomerRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class CustomerRepositoryTest {
+
+    @Autowired
+    private CustomerRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Deve normalizar a chave do cliente ignorando caixa e espaços")
+    public void keyOfTest() {
+        Assertions.assertThat(Customer.keyOf(" Fulano  de\tTal ")).isEqualTo("fulano de tal");
+        Assertions.assertThat(Customer.keyOf("FULANO DE TAL")).isEqualTo("fulano de tal");
+        Assertions.assertThat(Customer.keyOf(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve migrar os clientes dos empréstimos agrupando variações do mesmo nome")
+    public void backfillFromLoansTest() {
+        // cenário
+        Book book = Book.builder().title("A Cabana").author("Pâmela").isbn("9780306406157").isbnKey(9780306406157L).build();
+        entityManager.persist(book);
+        persistLoan(book, "Fulano de Tal", LoanStatus.OPEN);
+        persistLoan(book, " fulano  DE tal ", LoanStatus.OPEN);
+        persistLoan(book, "FULANO de tal", LoanStatus.RETURNED);
+        persistLoan(book, "Ciclano", LoanStatus.RETURNED);
+
+        // execução
+        int migrated = repository.backfillFromLoans();
+
+        // verificação
+        Assertions.assertThat(migrated).isEqualTo(2);
+        Assertions.assertThat(repository.findById("fulano de tal")).get().extracting(Customer::getActiveLoans).isEqualTo(2);
+        Assertions.assertThat(repository.findById("ciclano")).get().extracting(Customer::getActiveLoans).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Deve registrar o cliente com o primeiro empréstimo apenas uma vez")
+    public void registerWithLoanTest() {
+        // execução
+        int first = repository.registerWithLoan("fulano", "Fulano", "fulano@email.com");
+        int second = repository.registerWithLoan("fulano", "FULANO", "fulano@email.com");
+
+        // verificação
+        Assertions.assertThat(first).isEqualTo(1);
+        Assertions.assertThat(second).isZero();
+        Assertions.assertThat(repository.reserveLoan("fulano", 2)).isEqualTo(1);
+        Assertions.assertThat(repository.reserveLoan("fulano", 2)).isZero();
+    }
+
+    private void persistLoan(Book book, String customer, LoanStatus status) {
+        entityManager.persist(Loan.builder().book(book).customer(customer).status(status).loanDate(LocalDate.now()).build());
+    }
+}
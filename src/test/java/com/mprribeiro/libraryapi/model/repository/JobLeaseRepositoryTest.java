@@ -0,0 +1,47 @@
+package com.mprribeiro.libraryapi.model.repository;
+
+import com.mprribeiro.libraryapi.api.model.entity.JobLease;
+import com.mprribeiro.libraryapi.api.model.repository.JobLeaseRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class JobLeaseRepositoryTest {
+
+    @Autowired
+    private JobLeaseRepository repository;
+
+    @Test
+    @DisplayName("Deve renovar a concessão apenas pelo dono enquanto ela estiver válida e pendente")
+    public void renewOnlyByOwnerTest() {
+        // cenário
+        LocalDateTime now = LocalDateTime.now();
+        repository.create("late-loans-0");
+        repository.claim("late-loans-0", "node-0", now, now.plusMinutes(30));
+
+        // execução
+        int byOther = repository.renew("late-loans-0", "node-1", now, now.plusMinutes(60));
+        int byOwner = repository.renew("late-loans-0", "node-0", now, now.plusMinutes(60));
+        int afterExpiry = repository.renew("late-loans-0", "node-0", now.plusMinutes(90), now.plusMinutes(120));
+        repository.complete("late-loans-0", "node-0", now);
+        int afterCompletion = repository.renew("late-loans-0", "node-0", now, now.plusMinutes(60));
+
+        // verificação
+        Assertions.assertThat(byOther).isZero();
+        Assertions.assertThat(byOwner).isEqualTo(1);
+        Assertions.assertThat(afterExpiry).isZero();
+        Assertions.assertThat(afterCompletion).isZero();
+        Assertions.assertThat(repository.findById("late-loans-0")).get()
+                .extracting(JobLease::getLeaseUntil).isEqualTo(now.plusMinutes(60));
+    }
+}
@@ -2,6 +2,7 @@ package com.mprribeiro.libraryapi.model.repository;
 
 import com.mprribeiro.libraryapi.api.model.entity.Book;
 import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.model.entity.LoanStatus;
 import com.mprribeiro.libraryapi.api.model.repository.LoanRepository;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -12,6 +13,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -31,26 +33,26 @@ public class LoanRepositoryTest {
 
     @Test
     @DisplayName("Deve verificar se o livro está emprestado")
-    public void existsByBookAndNotReturnedTest() {
+    public void existsByBookAndStatusTest() {
 
         // cenario
         Loan loan = createAndPersistLoan(LocalDate.now());
 
         // execução
-        boolean exists = repository.existsByBookAndNotReturned(loan.getBook());
+        boolean exists = repository.existsByBookAndStatus(loan.getBook(), LoanStatus.OPEN);
 
         Assertions.assertThat(exists).isTrue();
     }
 
     @Test
     @DisplayName("Deve buscar empréstimo pelo isbn do livro ou customer")
-    public void findByBookIsbnOrCustomerTest() {
+    public void findByBookIsbnKeyOrCustomerTest() {
 
         // cenario
         Loan loan = createAndPersistLoan(LocalDate.now());
 
         // execução
-        Page<Loan> result =  repository.findByBookIsbnOrCustomer("034", "Ciclano", PageRequest.of(0, 10));
+        Page<Loan> result =  repository.findByBookIsbnKeyOrCustomer(9780306406157L, "Ciclano", PageRequest.of(0, 10));
 
         Assertions.assertThat(result.getContent()).hasSize(1);
         Assertions.assertThat(result.getContent()).contains(loan);
@@ -59,10 +61,38 @@ public class LoanRepositoryTest {
         Assertions.assertThat(result.getTotalElements()).isEqualTo(1);
     }
 
+    @Test
+    @DisplayName("Deve paginar o histórico do livro por cursor, do empréstimo mais recente ao mais antigo")
+    public void findHistoryTest() {
+
+        // cenario
+        Loan first = createAndPersistLoan(LocalDate.of(2020, 1, 5));
+        Book book = first.getBook();
+        Loan second = persistLoan(book, LocalDate.of(2020, 2, 1));
+        Loan third = persistLoan(book, LocalDate.of(2020, 2, 1));
+        Loan fourth = persistLoan(book, LocalDate.of(2020, 3, 1));
+
+        // execução
+        Slice<Loan> firstPage = repository.findHistory(book.getId(), LocalDate.of(2020, 1, 10), LocalDate.of(9999, 12, 31), Long.MAX_VALUE, PageRequest.of(0, 2));
+        Slice<Loan> secondPage = repository.findHistory(book.getId(), LocalDate.of(2020, 1, 10), third.getLoanDate(), third.getId(), PageRequest.of(0, 2));
+
+        // verificação
+        Assertions.assertThat(firstPage.getContent()).containsExactly(fourth, third);
+        Assertions.assertThat(firstPage.hasNext()).isTrue();
+        Assertions.assertThat(secondPage.getContent()).containsExactly(second);
+        Assertions.assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    private Loan persistLoan(Book book, LocalDate loanDate) {
+        Loan loan = Loan.builder().book(book).customer("Ciclano").loanDate(loanDate).dueDate(loanDate.plusDays(4)).build();
+        entityManager.persist(loan);
+        return loan;
+    }
+
     private Loan createAndPersistLoan(LocalDate loanDate) {
-        Book book = Book.builder().title("A Cabana").author("Pâmela").isbn("034").build();
+        Book book = Book.builder().title("A Cabana").author("Pâmela").isbn("9780306406157").isbnKey(9780306406157L).build();
         entityManager.persist(book);
-        Loan loan = Loan.builder().customer("Ciclano").loanDate(loanDate).build();
+        Loan loan = Loan.builder().customer("Ciclano").loanDate(loanDate).dueDate(loanDate.plusDays(4)).build();
         loan.setBook(book);
         entityManager.persist(loan);
         return loan;
@@ -70,24 +100,24 @@ public class LoanRepositoryTest {
 
     @Test
     @DisplayName("Deve obter empréstimos atrasados")
-    public void findByLoanDateLessThanAndNotReturnedTest() {
+    public void findByStatusAndDueDateLessThanEqualTest() {
 
         // cenario
         Loan loan = createAndPersistLoan(LocalDate.now().minusDays(5));
 
-        List<Loan> result = repository.findByLoanDateLessThanAndNotReturned(LocalDate.now().minusDays(4));
+        List<Loan> result = repository.findByStatusAndDueDateLessThanEqual(LoanStatus.OPEN, LocalDate.now());
 
         Assertions.assertThat(result).hasSize(1).contains(loan);
     }
 
     @Test
     @DisplayName("Não deve obter empréstimos atrasados")
-    public void notFindByLoanDateLessThanAndNotReturnedTest() {
+    public void notFindByStatusAndDueDateLessThanEqualTest() {
 
         // cenario
         Loan loan = createAndPersistLoan(LocalDate.now());
 
-        List<Loan> result = repository.findByLoanDateLessThanAndNotReturned(LocalDate.now().minusDays(4));
+        List<Loan> result = repository.findByStatusAndDueDateLessThanEqual(LoanStatus.OPEN, LocalDate.now());
 
         Assertions.assertThat(result).isEmpty();
     }
@@ -1,17 +1,23 @@
 package com.mprribeiro.libraryapi.service;
 
+import com.mprribeiro.libraryapi.api.catalog.BookEvent;
+import com.mprribeiro.libraryapi.api.config.CountCacheProperties;
 import com.mprribeiro.libraryapi.api.exception.BusinessException;
 import com.mprribeiro.libraryapi.api.model.entity.Book;
 import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
 import com.mprribeiro.libraryapi.api.service.BookService;
+import com.mprribeiro.libraryapi.api.service.KnownIsbnFilter;
 import com.mprribeiro.libraryapi.api.service.impl.BookServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -32,12 +38,18 @@ public class BookServiceTest {
 
     BookService service;
 
+    KnownIsbnFilter isbnFilter;
+
     @MockBean
     BookRepository repository;
 
+    @MockBean
+    ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     public void setUp() {
-        this.service = new BookServiceImpl(repository);
+        this.isbnFilter = new KnownIsbnFilter(repository, new SimpleMeterRegistry(), 1000, 0.01, 1 << 20, 100);
+        this.service = new BookServiceImpl(repository, eventPublisher, isbnFilter, new SimpleMeterRegistry(), new CountCacheProperties(), 500);
     }
 
     @Test
@@ -45,8 +57,8 @@ public class BookServiceTest {
     public void saveBookTest() {
         // cenário
         Book book = createNewBook();
-        Mockito.when(repository.existsByIsbn(Mockito.anyString())).thenReturn(false);
-        Mockito.when(repository.save(book)).thenReturn(Book.builder().id((long) 1).title("A Cabana").author("Pâmela").isbn("034").build());
+        Mockito.when(repository.existsByIsbnKey(Mockito.anyLong())).thenReturn(false);
+        Mockito.when(repository.save(book)).thenReturn(Book.builder().id((long) 1).title("A Cabana").author("Pâmela").isbn("9780306406157").isbnKey(9780306406157L).build());
 
         // execução
         Book savedBook = service.save(book);
@@ -55,11 +67,13 @@ public class BookServiceTest {
         assertThat(savedBook.getId()).isNotNull();
         assertThat(savedBook.getAuthor()).isEqualTo("Pâmela");
         assertThat(savedBook.getTitle()).isEqualTo("A Cabana");
-        assertThat(savedBook.getIsbn()).isEqualTo("034");
+        assertThat(savedBook.getIsbn()).isEqualTo("9780306406157");
+        assertThat(book.getIsbnKey()).isEqualTo(9780306406157L);
+        Mockito.verify(eventPublisher).publishEvent(Mockito.any(BookEvent.class));
     }
 
     private Book createNewBook() {
-        return Book.builder().title("A Cabana").author("Pâmela").isbn("034").build();
+        return Book.builder().title("A Cabana").author("Pâmela").isbn("978-0-306-40615-7").build();
     }
 
     @Test
@@ -68,7 +82,7 @@ public class BookServiceTest {
         // cenário
         Book book = createNewBook();
         String messageError = "Isbn já cadastrado!";
-        Mockito.when(repository.existsByIsbn(Mockito.anyString())).thenReturn(true);
+        Mockito.when(repository.existsByIsbnKey(Mockito.anyLong())).thenReturn(true);
 
         // execução
         Throwable ex = Assertions.catchThrowable(() -> service.save(book));
@@ -152,10 +166,15 @@ public class BookServiceTest {
         updatedBook.setId(id);
 
         // execução
+        Mockito.when(repository.findAuthorById(id)).thenReturn("Autor Anterior");
         Mockito.when(repository.save(updatingBook)).thenReturn(updatedBook);
         Book book = service.update(updatingBook);
 
         // verificações
+        ArgumentCaptor<BookEvent> published = ArgumentCaptor.forClass(BookEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(published.capture());
+        assertThat(published.getValue().getPreviousAuthor()).isEqualTo("Autor Anterior");
+        assertThat(published.getValue().getAuthor()).isEqualTo(updatedBook.getAuthor());
         assertThat(updatedBook.getId()).isEqualTo(updatedBook.getId());
         assertThat(updatedBook.getAuthor()).isEqualTo(updatedBook.getAuthor());
         assertThat(updatedBook.getTitle()).isEqualTo(updatedBook.getTitle());
@@ -201,15 +220,50 @@ public class BookServiceTest {
     @DisplayName("Deve obter um livro pelo Isbn")
     public void getBookByIsbnTest() {
 
-        String isbn = "123";
-        Mockito.when(repository.findByIsbn(isbn)).thenReturn(Optional.of(Book.builder().id(1l).isbn(isbn).build()));
+        String isbn = "0-306-40615-2";
+        Mockito.when(repository.findByIsbnKey(9780306406157L)).thenReturn(Optional.of(Book.builder().id(1l).isbn("9780306406157").isbnKey(9780306406157L).build()));
 
         Optional<Book> book = service.getBookByIsbn(isbn);
 
         assertThat(book.isPresent()).isTrue();
         assertThat(book.get().getId()).isEqualTo(1l);
-        assertThat(book.get().getIsbn()).isEqualTo(isbn);
+        assertThat(book.get().getIsbn()).isEqualTo("9780306406157");
+
+        Mockito.verify(repository, Mockito.times(1)).findByIsbnKey(9780306406157L);
+    }
+
+    @Test
+    @DisplayName("Deve salvar o livro sem consultar o isbn quando o filtro garantir que ele é novo")
+    public void skipIsbnQueryWhenFilterRulesOutTest() {
+        // cenário
+        Mockito.when(repository.findMaxId()).thenReturn(0L);
+        isbnFilter.rebuild();
+        Book book = createNewBook();
+        Mockito.when(repository.existsByIsbnKey(9780306406157L)).thenReturn(true);
+        Mockito.when(repository.save(book)).thenReturn(Book.builder().id(1l).isbn("9780306406157").isbnKey(9780306406157L).build());
+
+        // execução
+        service.save(book);
+        Throwable ex = Assertions.catchThrowable(() -> service.save(createNewBook()));
 
-        Mockito.verify(repository, Mockito.times(1)).findByIsbn(isbn);
+        // verificações
+        assertThat(ex).isInstanceOf(BusinessException.class);
+        Mockito.verify(repository, Mockito.times(1)).existsByIsbnKey(9780306406157L);
+        Mockito.verify(repository, Mockito.times(1)).save(book);
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio ao tentar cadastrar livro com isbn inválido")
+    public void shouldNotSaveBookWithInvalidIsbnTest() {
+        // cenário
+        Book book = Book.builder().title("A Cabana").author("Pâmela").isbn("978-0-306-40615-8").build();
+
+        // execução
+        Throwable ex = Assertions.catchThrowable(() -> service.save(book));
+
+        // verificações
+        assertThat(ex).isInstanceOf(BusinessException.class).hasMessage("Isbn inválido!");
+        Mockito.verify(repository, Mockito.never()).existsByIsbnKey(Mockito.anyLong());
+        Mockito.verify(repository, Mockito.never()).save(book);
     }
 }
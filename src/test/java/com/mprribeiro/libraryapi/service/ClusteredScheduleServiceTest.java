@@ -0,0 +1,121 @@
+package com.mprribeiro.libraryapi.service;
+
+import com.mprribeiro.libraryapi.LibraryApiApplication;
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.entity.JobLease;
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.model.repository.JobLeaseRepository;
+import com.mprribeiro.libraryapi.api.model.repository.LoanRepository;
+import com.mprribeiro.libraryapi.api.service.EmailService;
+import com.mprribeiro.libraryapi.api.service.ScheduleService;
+import com.mprribeiro.libraryapi.api.support.Isbn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClusteredScheduleServiceTest {
+
+    private static final int NODES = 3;
+    private static final int SHARDS = 8;
+    private static final int LATE_LOANS = 200;
+    private static final int LOANS_PER_CUSTOMER = 2;
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private final Queue<String> sentMails = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    public void tearDown() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @DisplayName("Deve enviar um único e-mail de atraso por cliente com vários nós compartilhando o banco")
+    public void sendLateLoanMailsOnceAcrossNodesTest() throws Exception {
+        // cenário
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(startNode("node-" + i));
+        }
+        seedLateLoans(nodes.get(0));
+
+        // execução
+        ExecutorService executor = Executors.newFixedThreadPool(NODES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> runs = new ArrayList<>();
+        for (ConfigurableApplicationContext node : nodes) {
+            runs.add(executor.submit(() -> {
+                start.await();
+                node.getBean(ScheduleService.class).sendMailToLateLoans();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> run : runs) {
+            run.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // verificação
+        assertThat(sentMails).hasSize(LATE_LOANS / LOANS_PER_CUSTOMER).doesNotHaveDuplicates();
+        List<JobLease> leases = nodes.get(0).getBean(JobLeaseRepository.class).findAll();
+        assertThat(leases).hasSize(SHARDS).allMatch(lease -> lease.getCompletedAt() != null);
+        assertThat(leases.stream().map(JobLease::getOwner).collect(Collectors.toSet())).hasSizeGreaterThan(1);
+    }
+
+    private ConfigurableApplicationContext startNode(String nodeId) {
+        EmailService recorder = (message, mailList) -> sentMails.addAll(mailList);
+        return new SpringApplicationBuilder(LibraryApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> ((GenericApplicationContext) context)
+                        .registerBean("recordingEmailService", EmailService.class, () -> recorder, bean -> bean.setPrimary(true)))
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.devtools.restart.enabled=false",
+                        "application.node-id=" + nodeId,
+                        "application.late-loans.shards=" + SHARDS)
+                .run();
+    }
+
+    private void seedLateLoans(ConfigurableApplicationContext node) {
+        BookRepository bookRepository = node.getBean(BookRepository.class);
+        LoanRepository loanRepository = node.getBean(LoanRepository.class);
+        for (int i = 0; i < LATE_LOANS; i++) {
+            long isbnKey = isbnKey(i);
+            Book book = bookRepository.save(Book.builder().title("Livro " + i).author("Autor").isbn(Isbn.format(isbnKey)).isbnKey(isbnKey).build());
+            loanRepository.save(Loan.builder()
+                    .book(book)
+                    .customer("Cliente " + i / LOANS_PER_CUSTOMER)
+                    .customerEmail("cliente" + i / LOANS_PER_CUSTOMER + "@email.com")
+                    .loanDate(LocalDate.now().minusDays(10))
+                    .dueDate(LocalDate.now().minusDays(6))
+                    .build());
+        }
+    }
+
+    private static long isbnKey(int i) {
+        long key = 978_000_000_000_0L + i * 10L;
+        while (!Isbn.isValid(Long.toString(key))) {
+            key++;
+        }
+        return key;
+    }
+}
@@ -0,0 +1,146 @@
+package com.mprribeiro.libraryapi.service;
+
+import com.mprribeiro.libraryapi.api.dto.LateLoanDTO;
+import com.mprribeiro.libraryapi.api.service.EmailService;
+import com.mprribeiro.libraryapi.api.service.JobLeaseService;
+import com.mprribeiro.libraryapi.api.service.LateLoanPipeline;
+import com.mprribeiro.libraryapi.api.service.LoanService;
+import com.mprribeiro.libraryapi.api.service.ScheduleService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LateLoanPipelineTest {
+
+    LoanService loanService = Mockito.mock(LoanService.class);
+    JobLeaseService jobLeaseService = Mockito.mock(JobLeaseService.class);
+    Queue<String> sentMails = new ConcurrentLinkedQueue<>();
+    EmailService emailService = (message, mailList) -> {
+        if (mailList.contains("falha@email.com")) {
+            throw new IllegalStateException("SMTP indisponível");
+        }
+        sentMails.addAll(mailList);
+    };
+    LateLoanPipeline pipeline;
+
+    @BeforeEach
+    public void setUp() {
+        pipeline = new LateLoanPipeline(loanService, emailService, new SimpleMeterRegistry(), 2, 2, 2);
+        ReflectionTestUtils.setField(pipeline, "message", "Atenção!!! Empréstimo atrasado");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pipeline.destroy();
+    }
+
+    @Test
+    @DisplayName("Deve enviar um único aviso por cliente e marcar os empréstimos avisados")
+    public void sendOneNoticePerCustomerTest() {
+        // cenário
+        Mockito.when(loanService.getLateLoans(0, 1, 0, 2)).thenReturn(Arrays.asList(late(1, "fulano@email.com"), late(2, "ciclano@email.com")));
+        Mockito.when(loanService.getLateLoans(0, 1, 2, 2)).thenReturn(Collections.singletonList(late(3, "fulano@email.com")));
+
+        // execução
+        int notices = pipeline.process(0, 1);
+
+        // verificação
+        assertThat(notices).isEqualTo(2);
+        assertThat(sentMails).containsExactlyInAnyOrder("fulano@email.com", "ciclano@email.com");
+        Mockito.verify(loanService).markLateNoticeSent(Arrays.asList(1L, 3L), LocalDate.now());
+        Mockito.verify(loanService).markLateNoticeSent(Collections.singletonList(2L), LocalDate.now());
+    }
+
+    @Test
+    @DisplayName("Deve falhar o shard quando um aviso não for enviado, sem marcar seus empréstimos")
+    public void failShardWhenNoticeFailsTest() {
+        // cenário
+        Mockito.when(loanService.getLateLoans(0, 1, 0, 2)).thenReturn(Arrays.asList(late(1, "falha@email.com"), late(2, "ciclano@email.com")));
+
+        // execução
+        Throwable ex = Assertions.catchThrowable(() -> pipeline.process(0, 1));
+
+        // verificação
+        assertThat(ex).isInstanceOf(IllegalStateException.class).hasMessageContaining("1 of 2");
+        assertThat(sentMails).containsExactly("ciclano@email.com");
+        Mockito.verify(loanService).markLateNoticeSent(Collections.singletonList(2L), LocalDate.now());
+        Mockito.verify(loanService, Mockito.never()).markLateNoticeSent(Mockito.eq(Collections.singletonList(1L)), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Deve manter a concessão do shard pendente quando algum aviso falhar")
+    public void keepLeasePendingWhenShardFailsTest() {
+        // cenário
+        ScheduleService scheduleService = new ScheduleService(pipeline, jobLeaseService, 2, 30);
+        Mockito.when(jobLeaseService.getOwner()).thenReturn("node-0");
+        Mockito.when(jobLeaseService.tryClaim(Mockito.anyString(), Mockito.any(), Mockito.eq(true))).thenReturn(true);
+        Mockito.when(loanService.getLateLoans(Mockito.eq(0), Mockito.eq(2), Mockito.anyLong(), Mockito.anyInt()))
+                .thenReturn(Collections.singletonList(late(2, "falha@email.com")));
+        Mockito.when(loanService.getLateLoans(Mockito.eq(1), Mockito.eq(2), Mockito.anyLong(), Mockito.anyInt()))
+                .thenReturn(Collections.singletonList(late(1, "fulano@email.com")));
+
+        // execução
+        scheduleService.sendMailToLateLoans();
+
+        // verificação
+        String run = "late-loans-" + LocalDate.now();
+        Mockito.verify(jobLeaseService).complete(run + "-1");
+        Mockito.verify(jobLeaseService, Mockito.never()).complete(run + "-0");
+    }
+
+    @Test
+    @DisplayName("Deve interromper o shard quando a renovação da concessão falhar")
+    public void stopShardWhenHeartbeatFailsTest() {
+        // cenário
+        Mockito.when(loanService.getLateLoans(0, 1, 0, 2)).thenReturn(Arrays.asList(late(1, "fulano@email.com"), late(2, "ciclano@email.com")));
+
+        // execução
+        Throwable ex = Assertions.catchThrowable(() -> pipeline.process(0, 1, () -> false));
+
+        // verificação
+        assertThat(ex).isInstanceOf(IllegalStateException.class).hasMessageContaining("lost");
+        assertThat(sentMails).isEmpty();
+        Mockito.verify(loanService, Mockito.never()).getLateLoans(0, 1, 2, 2);
+        Mockito.verify(loanService, Mockito.never()).markLateNoticeSent(Mockito.anyList(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Deve renovar a concessão durante o shard e não concluí-la quando a renovação falhar")
+    public void keepLeasePendingWhenRenewalFailsTest() {
+        // cenário
+        ScheduleService scheduleService = new ScheduleService(pipeline, jobLeaseService, 2, 0);
+        Mockito.when(jobLeaseService.getOwner()).thenReturn("node-0");
+        Mockito.when(jobLeaseService.tryClaim(Mockito.anyString(), Mockito.any(), Mockito.eq(true))).thenReturn(true);
+        String run = "late-loans-" + LocalDate.now();
+        Mockito.when(jobLeaseService.renew(Mockito.eq(run + "-0"), Mockito.any())).thenReturn(false);
+        Mockito.when(jobLeaseService.renew(Mockito.eq(run + "-1"), Mockito.any())).thenReturn(true);
+        Mockito.when(loanService.getLateLoans(Mockito.anyInt(), Mockito.eq(2), Mockito.anyLong(), Mockito.anyInt()))
+                .thenReturn(Collections.singletonList(late(1, "fulano@email.com")));
+
+        // execução
+        scheduleService.sendMailToLateLoans();
+
+        // verificação
+        Mockito.verify(jobLeaseService, Mockito.atLeastOnce()).renew(Mockito.eq(run + "-1"), Mockito.any());
+        Mockito.verify(jobLeaseService).complete(run + "-1");
+        Mockito.verify(jobLeaseService, Mockito.never()).complete(run + "-0");
+    }
+
+    private static LateLoanDTO late(long id, String email) {
+        return LateLoanDTO.builder().id(id).email(email).title("Livro " + id).build();
+    }
+}
@@ -0,0 +1,213 @@
+package com.mprribeiro.libraryapi.service;
+
+import com.mprribeiro.libraryapi.api.exception.BusinessException;
+import com.mprribeiro.libraryapi.api.journal.LoanEvent;
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.model.repository.CustomerRepository;
+import com.mprribeiro.libraryapi.api.model.repository.LoanRepository;
+import com.mprribeiro.libraryapi.api.service.BookService;
+import com.mprribeiro.libraryapi.api.service.LoanService;
+import com.mprribeiro.libraryapi.benchmark.DatasetGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class LoanInventoryStressTest {
+
+    private static final int COPIES = 5;
+    private static final int CUSTOMERS = 40;
+    private static final int MAX_ACTIVE_LOANS = 5;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    LoanEventRecorder loanEvents;
+
+    @AfterEach
+    public void tearDown() {
+        loanEvents.clear();
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve emprestar no máximo o número de exemplares e devolvê-los uma única vez sob concorrência")
+    public void reserveAndReleaseCopiesConcurrentlyTest() throws Exception {
+        // cenário
+        Book book = bookService.save(Book.builder().title("A Cabana").author("Pâmela").isbn("9780306406157").copies(COPIES).build());
+        Queue<Loan> loans = new ConcurrentLinkedQueue<>();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // execução
+        runConcurrently(CUSTOMERS, i -> () -> {
+            try {
+                loans.add(loanService.save(Loan.builder().book(book).customer("Cliente " + i).loanDate(LocalDate.now()).build()));
+            } catch (BusinessException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+        int availableAfterLoans = bookRepository.findById(book.getId()).get().getAvailable();
+
+        List<Loan> loaned = new ArrayList<>(loans);
+        AtomicInteger returned = new AtomicInteger();
+        runConcurrently(loaned.size() * 2, i -> () -> {
+            Loan loan = loaned.get(i % loaned.size()).toBuilder().build();
+            try {
+                loanService.returnLoan(loan);
+                returned.incrementAndGet();
+            } catch (BusinessException e) {
+                // devolução duplicada recusada
+            }
+            return null;
+        });
+        Book afterReturns = bookRepository.findById(book.getId()).get();
+
+        // verificação
+        assertThat(loans).hasSize(COPIES);
+        assertThat(rejected.get()).isEqualTo(CUSTOMERS - COPIES);
+        assertThat(availableAfterLoans).isZero();
+        assertThat(returned.get()).isEqualTo(COPIES);
+        assertThat(afterReturns.getAvailable()).isEqualTo(COPIES);
+        assertThat(afterReturns.getCopies()).isEqualTo(COPIES);
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite de empréstimos ativos do cliente sob concorrência, ignorando caixa e espaços do nome")
+    public void customerActiveLoanLimitConcurrentlyTest() throws Exception {
+        // cenário
+        String[] spellings = {"Fulano", "fulano", " FULANO ", "Fulano\t"};
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            books.add(bookService.save(Book.builder().title("Livro " + i).author("Autor").isbn(Long.toString(DatasetGenerator.isbnKey(i))).build()));
+        }
+        Queue<Loan> loans = new ConcurrentLinkedQueue<>();
+
+        // execução
+        runConcurrently(books.size(), i -> () -> {
+            try {
+                loans.add(loanService.save(Loan.builder().book(books.get(i)).customer(spellings[i % spellings.length]).customerEmail("fulano@email.com").loanDate(LocalDate.now()).build()));
+            } catch (BusinessException e) {
+                // limite atingido
+            }
+            return null;
+        });
+        int activeAfterLoans = customerRepository.findById("fulano").get().getActiveLoans();
+        long reservedCopies = books.stream().filter(book -> bookRepository.findById(book.getId()).get().getAvailable() == 0).count();
+        loanService.returnLoan(loans.peek());
+
+        // verificação
+        assertThat(loans).hasSize(MAX_ACTIVE_LOANS);
+        assertThat(activeAfterLoans).isEqualTo(MAX_ACTIVE_LOANS);
+        assertThat(reservedCopies).isEqualTo(MAX_ACTIVE_LOANS);
+        assertThat(customerRepository.findById("fulano").get().getActiveLoans()).isEqualTo(MAX_ACTIVE_LOANS - 1);
+    }
+
+    @Test
+    @DisplayName("Deve publicar um único evento de devolução quando o mesmo empréstimo for devolvido concorrentemente")
+    public void returnSameLoanConcurrentlyTest() throws Exception {
+        // cenário
+        Book book = bookService.save(Book.builder().title("A Cabana").author("Pâmela").isbn("9780306406157").build());
+        Loan loan = loanService.save(Loan.builder().book(book).customer("Fulano").loanDate(LocalDate.now()).build());
+        AtomicInteger returned = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // execução
+        runConcurrently(16, i -> () -> {
+            try {
+                loanService.returnLoan(loan.toBuilder().build());
+                returned.incrementAndGet();
+            } catch (BusinessException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+
+        // verificação
+        assertThat(returned.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(15);
+        assertThat(loanEvents.events()).filteredOn(event -> event.getType() == LoanEvent.Type.RETURNED)
+                .extracting(LoanEvent::getLoanId).containsExactly(loan.getId());
+        assertThat(bookRepository.findById(book.getId()).get().getAvailable()).isEqualTo(1);
+        assertThat(customerRepository.findById("fulano").get().getActiveLoans()).isZero();
+    }
+
+    private static void runConcurrently(int tasks, IntFunction<Callable<Void>> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                Callable<Void> call = task.apply(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @TestConfiguration
+    static class LoanEventRecorder {
+
+        private final Queue<LoanEvent> events = new ConcurrentLinkedQueue<>();
+
+        @EventListener
+        public void record(LoanEvent event) {
+            events.add(event);
+        }
+
+        List<LoanEvent> events() {
+            return new ArrayList<>(events);
+        }
+
+        void clear() {
+            events.clear();
+        }
+    }
+}
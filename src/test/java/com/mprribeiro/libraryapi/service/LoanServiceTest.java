@@ -1,12 +1,20 @@
 package com.mprribeiro.libraryapi.service;
 
+import com.mprribeiro.libraryapi.api.config.CountCacheProperties;
+import com.mprribeiro.libraryapi.api.config.LoanPolicyProperties;
 import com.mprribeiro.libraryapi.api.dto.LoanFilterDTO;
 import com.mprribeiro.libraryapi.api.exception.BusinessException;
+import com.mprribeiro.libraryapi.api.journal.LoanEvent;
 import com.mprribeiro.libraryapi.api.model.entity.Book;
 import com.mprribeiro.libraryapi.api.model.entity.Loan;
+import com.mprribeiro.libraryapi.api.model.entity.LoanStatus;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.model.repository.CustomerRepository;
 import com.mprribeiro.libraryapi.api.model.repository.LoanRepository;
+import com.mprribeiro.libraryapi.api.service.LoanPolicy;
 import com.mprribeiro.libraryapi.api.service.LoanService;
 import com.mprribeiro.libraryapi.api.service.impl.LoanServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,11 +22,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -36,9 +48,24 @@ public class LoanServiceTest {
     @MockBean
     LoanRepository repository;
 
+    @MockBean
+    BookRepository bookRepository;
+
+    @MockBean
+    CustomerRepository customerRepository;
+
+    @MockBean
+    ApplicationEventPublisher eventPublisher;
+
+    LoanPolicyProperties policyProperties = new LoanPolicyProperties();
+
+    CountCacheProperties countCacheProperties = new CountCacheProperties();
+
     @BeforeEach
     public void setUp() {
-        this.service = new LoanServiceImpl(repository);
+        this.service = new LoanServiceImpl(repository, bookRepository, customerRepository, eventPublisher, new LoanPolicy(policyProperties), new SimpleMeterRegistry(), countCacheProperties, new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), 500);
+        Mockito.when(bookRepository.reserveCopy(Mockito.any())).thenReturn(1);
+        Mockito.when(customerRepository.reserveLoan(Mockito.anyString(), Mockito.anyInt())).thenReturn(1);
     }
 
     @Test
@@ -58,6 +85,8 @@ public class LoanServiceTest {
         assertThat(loan.getBook()).isEqualTo(savedLoan.getBook());
         assertThat(loan.getCustomer()).isEqualTo(savedLoan.getCustomer());
         assertThat(loan.getLoanDate()).isEqualTo(savedLoan.getLoanDate());
+        assertThat(savingLoan.getDueDate()).isEqualTo(savingLoan.getLoanDate().plusDays(4));
+        Mockito.verify(eventPublisher).publishEvent(Mockito.any(LoanEvent.class));
     }
 
     @Test
@@ -66,7 +95,7 @@ public class LoanServiceTest {
         // cenário
         Loan loan = createNewLoan();
         String messageError = "Livro já emprestado!";
-        Mockito.when(repository.existsByBookAndNotReturned(loan.getBook())).thenReturn(true);
+        Mockito.when(bookRepository.reserveCopy(loan.getBook().getId())).thenReturn(0);
 
         // execução
         Throwable ex = Assertions.catchThrowable(() -> service.save(loan));
@@ -74,6 +103,85 @@ public class LoanServiceTest {
         // verificação
         assertThat(ex).isInstanceOf(BusinessException.class).hasMessage(messageError);;
         Mockito.verify(repository, Mockito.never()).save(loan);
+        Mockito.verify(eventPublisher, Mockito.never()).publishEvent(Mockito.any(LoanEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio quando o cliente atingiu o limite de empréstimos ativos")
+    public void shouldNotSaveLoanOverCustomerLimitTest() {
+        // cenário
+        policyProperties.getCustomerMaxActiveLoans().put("Ciclano", 2);
+        Loan loan = createNewLoan();
+        Mockito.when(customerRepository.reserveLoan("ciclano", 2)).thenReturn(0);
+        Mockito.when(customerRepository.registerWithLoan(Mockito.anyString(), Mockito.anyString(), Mockito.any())).thenReturn(0);
+        Mockito.when(customerRepository.findActiveLoans("ciclano")).thenReturn(2);
+
+        // execução
+        Throwable ex = Assertions.catchThrowable(() -> service.save(loan));
+
+        // verificação
+        assertThat(ex).isInstanceOf(BusinessException.class).hasMessage("Limite de empréstimos do cliente atingido!");
+        Mockito.verify(bookRepository).releaseCopy(loan.getBook().getId());
+        Mockito.verify(repository, Mockito.never()).save(loan);
+    }
+
+    @Test
+    @DisplayName("Deve registrar o cliente no primeiro empréstimo")
+    public void registerCustomerOnFirstLoanTest() {
+        // cenário
+        Loan loan = createNewLoan();
+        loan.setCustomerEmail("ciclano@email.com");
+        Mockito.when(customerRepository.reserveLoan("ciclano", 5)).thenReturn(0);
+        Mockito.when(customerRepository.registerWithLoan("ciclano", "Ciclano", "ciclano@email.com")).thenReturn(1);
+        Mockito.when(repository.save(Mockito.any(Loan.class))).then(invocation -> invocation.<Loan>getArgument(0).toBuilder().id(1l).build());
+
+        // execução
+        service.save(loan);
+
+        // verificação
+        Mockito.verify(customerRepository).registerWithLoan("ciclano", "Ciclano", "ciclano@email.com");
+        Mockito.verify(repository).save(loan);
+    }
+
+    @Test
+    @DisplayName("Deve reservar no cliente registrado por um primeiro empréstimo concorrente")
+    public void reserveAfterConcurrentRegistrationTest() {
+        // cenário
+        Loan loan = createNewLoan();
+        Mockito.when(customerRepository.reserveLoan("ciclano", 5)).thenReturn(0, 1);
+        Mockito.when(customerRepository.registerWithLoan(Mockito.anyString(), Mockito.anyString(), Mockito.any())).thenReturn(0);
+        Mockito.when(repository.save(Mockito.any(Loan.class))).then(invocation -> invocation.<Loan>getArgument(0).toBuilder().id(1l).build());
+
+        // execução
+        Loan savedLoan = service.save(loan);
+
+        // verificação
+        assertThat(savedLoan.getId()).isEqualTo(1l);
+        Mockito.verify(customerRepository, Mockito.times(2)).reserveLoan("ciclano", 5);
+        Mockito.verify(customerRepository).findActiveLoans("ciclano");
+        Mockito.verify(bookRepository, Mockito.never()).releaseCopy(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Deve calcular a data de devolução pela política do cliente ou do livro")
+    public void dueDateFromLoanPolicyTest() {
+        // cenário
+        policyProperties.getBookDays().put("034", 7);
+        policyProperties.getCustomerDays().put("Fulano", 14);
+        Loan bookPolicyLoan = createNewLoan();
+        bookPolicyLoan.setId(1l);
+        Loan customerPolicyLoan = createNewLoan();
+        customerPolicyLoan.setId(2l);
+        customerPolicyLoan.setCustomer("Fulano");
+        Mockito.when(repository.save(Mockito.any(Loan.class))).then(invocation -> invocation.getArgument(0));
+
+        // execução
+        service.save(bookPolicyLoan);
+        service.save(customerPolicyLoan);
+
+        // verificação
+        assertThat(bookPolicyLoan.getDueDate()).isEqualTo(LocalDate.now().plusDays(7));
+        assertThat(customerPolicyLoan.getDueDate()).isEqualTo(LocalDate.now().plusDays(14));
     }
 
     private Loan createNewLoan() {
@@ -102,7 +210,7 @@ public class LoanServiceTest {
         assertThat(resultLoan.get().getLoanDate()).isEqualTo(loan.getLoanDate());
         assertThat(resultLoan.get().getCustomer()).isEqualTo(loan.getCustomer());
         assertThat(resultLoan.get().getBook()).isEqualTo(loan.getBook());
-        assertThat(resultLoan.get().getReturned()).isEqualTo(loan.getReturned());
+        assertThat(resultLoan.get().getStatus()).isEqualTo(loan.getStatus());
 
         Mockito.verify(repository).findById(id);
     }
@@ -114,7 +222,7 @@ public class LoanServiceTest {
         // cenário
         Loan loan = createNewLoan();
         loan.setId(1l);
-        loan.setReturned(true);
+        loan.setCustomer("Fulano");
 
         Mockito.when(repository.save(loan)).thenReturn(loan);
 
@@ -122,10 +230,66 @@ public class LoanServiceTest {
         Loan updatedLoan = service.update(loan);
 
         // verificação
-        assertThat(updatedLoan.getReturned()).isTrue();
+        assertThat(updatedLoan.getCustomer()).isEqualTo("Fulano");
         Mockito.verify(repository).save(loan);
     }
 
+    @Test
+    @DisplayName("Deve devolver um empréstimo aberto")
+    public void returnLoanTest() {
+
+        // cenário
+        Loan loan = createNewLoan();
+        loan.setId(1l);
+
+        Mockito.when(repository.transition(Mockito.eq(1l), Mockito.eq(LoanStatus.OPEN), Mockito.eq(LoanStatus.RETURNED), Mockito.any())).thenReturn(1);
+
+        // execução
+        Loan returnedLoan = service.returnLoan(loan);
+
+        // verificação
+        assertThat(returnedLoan.getStatus()).isEqualTo(LoanStatus.RETURNED);
+        assertThat(returnedLoan.getReturnedAt()).isNotNull();
+        Mockito.verify(bookRepository).releaseCopy(loan.getBook().getId());
+        Mockito.verify(customerRepository).releaseLoan("ciclano");
+        Mockito.verify(eventPublisher).publishEvent(Mockito.any(LoanEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio ao devolver um empréstimo já devolvido")
+    public void shouldNotReturnLoanTwiceTest() {
+
+        // cenário
+        Loan loan = createNewLoan();
+        loan.setId(1l);
+        loan.setStatus(LoanStatus.RETURNED);
+
+        // execução
+        Throwable ex = Assertions.catchThrowable(() -> service.returnLoan(loan));
+
+        // verificação
+        assertThat(ex).isInstanceOf(BusinessException.class).hasMessage("Empréstimo já devolvido!");
+        Mockito.verify(repository, Mockito.never()).save(loan);
+        Mockito.verify(bookRepository, Mockito.never()).releaseCopy(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio quando outra devolução concorrente já encerrou o empréstimo")
+    public void shouldNotReleaseCopyOnConcurrentReturnTest() {
+
+        // cenário
+        Loan loan = createNewLoan();
+        loan.setId(1l);
+
+        // execução
+        Throwable ex = Assertions.catchThrowable(() -> service.returnLoan(loan));
+
+        // verificação
+        assertThat(ex).isInstanceOf(BusinessException.class).hasMessage("Empréstimo já devolvido!");
+        Mockito.verify(bookRepository, Mockito.never()).releaseCopy(Mockito.any());
+        Mockito.verify(eventPublisher, Mockito.never()).publishEvent(Mockito.any(LoanEvent.class));
+    }
+
     @Test
     @DisplayName("Deve filtrar empréstimo pelas propriedades")
     public void findLoanTest() {
@@ -139,7 +303,7 @@ public class LoanServiceTest {
         List<Loan> list = Arrays.asList(loan);
 
         Page<Loan> page = new PageImpl<Loan>(list, pageRequest, list.size());
-        Mockito.when(repository.findByBookIsbnOrCustomer(Mockito.anyString(), Mockito.anyString(), Mockito.any(PageRequest.class))).thenReturn(page);
+        Mockito.when(repository.findByBookIsbnKeyOrCustomer(Mockito.anyLong(), Mockito.anyString(), Mockito.any(PageRequest.class))).thenReturn(page);
 
         // execução
         Page<Loan> result = service.find(dto, pageRequest);
@@ -151,4 +315,32 @@ public class LoanServiceTest {
         assertThat(result.getPageable().getPageSize()).isEqualTo(10);
 
     }
+
+    @Test
+    @DisplayName("Deve reaproveitar o total em cache e invalidá-lo ao registrar um empréstimo do mesmo cliente")
+    public void findLoanWithCachedCountTest() {
+        // cenário
+        countCacheProperties.setEnabled(true);
+        setUp();
+        LoanFilterDTO dto = LoanFilterDTO.builder().customer("Ciclano").isbn("9780306406157").build();
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        Loan loan = createNewLoan();
+        loan.setId(1l);
+        Mockito.when(repository.findSliceByBookIsbnKeyOrCustomer(Mockito.anyLong(), Mockito.anyString(), Mockito.any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(loan), pageRequest, true));
+        Mockito.when(repository.countByBookIsbnKeyOrCustomer(Mockito.anyLong(), Mockito.anyString())).thenReturn(42L);
+        Mockito.when(repository.save(Mockito.any(Loan.class))).thenReturn(loan);
+
+        // execução
+        Page<Loan> first = service.find(dto, pageRequest);
+        Page<Loan> cached = service.find(dto, pageRequest);
+        service.save(createNewLoan());
+        service.find(dto, pageRequest);
+
+        // verificação
+        assertThat(first.getTotalElements()).isEqualTo(42);
+        assertThat(cached.getTotalElements()).isEqualTo(42);
+        Mockito.verify(repository, Mockito.times(2)).countByBookIsbnKeyOrCustomer(9780306406157L, "Ciclano");
+        Mockito.verify(repository, Mockito.never()).findByBookIsbnKeyOrCustomer(Mockito.anyLong(), Mockito.anyString(), Mockito.any(PageRequest.class));
+    }
 }
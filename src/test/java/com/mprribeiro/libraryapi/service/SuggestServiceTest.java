@@ -0,0 +1,61 @@
+package com.mprribeiro.libraryapi.service;
+
+import com.mprribeiro.libraryapi.api.catalog.BookEvent;
+import com.mprribeiro.libraryapi.api.dto.TermCountDTO;
+import com.mprribeiro.libraryapi.api.model.entity.Book;
+import com.mprribeiro.libraryapi.api.model.repository.BookRepository;
+import com.mprribeiro.libraryapi.api.model.repository.LoanRepository;
+import com.mprribeiro.libraryapi.api.service.impl.SuggestServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SuggestServiceTest {
+
+    BookRepository bookRepository = Mockito.mock(BookRepository.class);
+    LoanRepository loanRepository = Mockito.mock(LoanRepository.class);
+    SuggestServiceImpl service = new SuggestServiceImpl(bookRepository, loanRepository, new SimpleMeterRegistry(), 10, 100);
+
+    @Test
+    @DisplayName("Deve manter os autores cadastrados durante a reconstrução das sugestões")
+    public void keepUpdatesDuringRebuildTest() {
+        // cenário
+        Mockito.when(bookRepository.countByAuthor(Mockito.any(Pageable.class))).thenAnswer(invocation -> {
+            service.apply(BookEvent.saved(Book.builder().id(2L).author("Machado de Assis").build()));
+            return Collections.singletonList(new TermCountDTO("Pâmela", 1));
+        });
+        Mockito.when(loanRepository.countByCustomer(Mockito.any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        // execução
+        service.rebuild();
+
+        // verificação
+        assertThat(service.suggestAuthors("ma", 10)).containsExactly("Machado de Assis");
+        assertThat(service.suggestAuthors("pa", 10)).containsExactly("Pâmela");
+    }
+
+    @Test
+    @DisplayName("Deve transferir o peso do autor anterior para o novo ao atualizar um livro")
+    public void moveAuthorWeightOnUpdateTest() {
+        // cenário
+        Mockito.when(bookRepository.countByAuthor(Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(new TermCountDTO("Pâmela", 1), new TermCountDTO("Paulo Coelho", 2)));
+        Mockito.when(loanRepository.countByCustomer(Mockito.any(Pageable.class))).thenReturn(Collections.emptyList());
+        service.rebuild();
+
+        // execução
+        service.apply(BookEvent.updated(Book.builder().id(1L).author("Paul Young").build(), "Pâmela"));
+        service.apply(BookEvent.updated(Book.builder().id(2L).author("Paul Young").build(), "Paulo Coelho"));
+
+        // verificação
+        assertThat(service.suggestAuthors("pa", 10)).containsExactly("Paul Young", "Paulo Coelho");
+        assertThat(service.suggestAuthors("pâ", 10)).doesNotContain("Pâmela");
+    }
+}